@@ -0,0 +1,154 @@
+/**
+ * Deque (Double-ended Queue) backed by a circular array instead of linked nodes.
+ * Same API as Deque; capacity is a power of two so wrap-around is a bit mask,
+ * and the array doubles when full, so adds are amortized O(1) with no allocation.
+ */
+public class ArrayDeque<T> {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private Object[] elements;
+    private int head;  // Index of the front element
+    private int size;
+
+    // Constructor
+    public ArrayDeque() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    // Constructor with initial capacity (rounded up to a power of two)
+    public ArrayDeque(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative: " + initialCapacity);
+        }
+        this.elements = new Object[tableSizeFor(Math.max(initialCapacity, 2))];
+        this.head = 0;
+        this.size = 0;
+    }
+
+    // Get size
+    public int size() {
+        return size;
+    }
+
+    // Check if empty
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Add element to the front
+    public void addFirst(T data) {
+        if (size == elements.length) {
+            grow();
+        }
+        head = (head - 1) & (elements.length - 1);
+        elements[head] = data;
+        size++;
+    }
+
+    // Add element to the rear
+    public void addLast(T data) {
+        if (size == elements.length) {
+            grow();
+        }
+        elements[(head + size) & (elements.length - 1)] = data;
+        size++;
+    }
+
+    // Remove element from the front
+    @SuppressWarnings("unchecked")
+    public T removeFirst() {
+        if (isEmpty()) {
+            throw new RuntimeException("Deque is empty");
+        }
+
+        T removedData = (T) elements[head];
+        elements[head] = null;
+        head = (head + 1) & (elements.length - 1);
+        size--;
+
+        return removedData;
+    }
+
+    // Remove element from the rear
+    @SuppressWarnings("unchecked")
+    public T removeLast() {
+        if (isEmpty()) {
+            throw new RuntimeException("Deque is empty");
+        }
+
+        int tail = (head + size - 1) & (elements.length - 1);
+        T removedData = (T) elements[tail];
+        elements[tail] = null;
+        size--;
+
+        return removedData;
+    }
+
+    // Get the front element without removing
+    @SuppressWarnings("unchecked")
+    public T peekFirst() {
+        if (isEmpty()) {
+            throw new RuntimeException("Deque is empty");
+        }
+
+        return (T) elements[head];
+    }
+
+    // Get the rear element without removing
+    @SuppressWarnings("unchecked")
+    public T peekLast() {
+        if (isEmpty()) {
+            throw new RuntimeException("Deque is empty");
+        }
+
+        return (T) elements[(head + size - 1) & (elements.length - 1)];
+    }
+
+    // Clear all elements
+    public void clear() {
+        int mask = elements.length - 1;
+        for (int i = 0; i < size; i++) {
+            elements[(head + i) & mask] = null;
+        }
+        head = 0;
+        size = 0;
+    }
+
+    // Smallest power of two >= capacity, capped at 1 << 30
+    private static int tableSizeFor(int capacity) {
+        int n = Integer.highestOneBit(capacity - 1) << 1;
+        return n <= 0 ? 1 << 30 : n;
+    }
+
+    // Double the capacity, unwrapping the elements to start at index 0
+    private void grow() {
+        int newCapacity = elements.length * 2;
+        if (newCapacity < 0) {
+            throw new IllegalStateException("Deque too large");
+        }
+
+        Object[] newElements = new Object[newCapacity];
+        int firstPart = elements.length - head;
+        System.arraycopy(elements, head, newElements, 0, firstPart);
+        System.arraycopy(elements, 0, newElements, firstPart, head);
+        elements = newElements;
+        head = 0;
+    }
+
+    // Simple toString implementation
+    @Override
+    public String toString() {
+        if (isEmpty()) return "[]";
+
+        StringBuilder sb = new StringBuilder("Front -> [");
+        int mask = elements.length - 1;
+        for (int i = 0; i < size; i++) {
+            sb.append(elements[(head + i) & mask]);
+            if (i < size - 1) {
+                sb.append(", ");
+            }
+        }
+        sb.append("] <- Rear");
+        return sb.toString();
+    }
+}
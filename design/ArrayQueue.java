@@ -0,0 +1,119 @@
+/**
+ * Queue backed by a circular array instead of linked nodes.
+ * Same API as Queue; capacity is a power of two so wrap-around is a bit mask,
+ * and the array doubles when full, so enqueue is amortized O(1) with no allocation.
+ */
+public class ArrayQueue<T> {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private Object[] elements;
+    private int head;  // Index of the front element
+    private int size;
+
+    // Constructor
+    public ArrayQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    // Constructor with initial capacity (rounded up to a power of two)
+    public ArrayQueue(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative: " + initialCapacity);
+        }
+        this.elements = new Object[tableSizeFor(Math.max(initialCapacity, 2))];
+        this.head = 0;
+        this.size = 0;
+    }
+
+    // Get size
+    public int size() {
+        return size;
+    }
+
+    // Check if empty
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Add element to the rear (enqueue)
+    public void enqueue(T data) {
+        if (size == elements.length) {
+            grow();
+        }
+        elements[(head + size) & (elements.length - 1)] = data;
+        size++;
+    }
+
+    // Remove element from the front (dequeue)
+    @SuppressWarnings("unchecked")
+    public T dequeue() {
+        if (isEmpty()) {
+            throw new RuntimeException("Queue is empty");
+        }
+
+        T removedData = (T) elements[head];
+        elements[head] = null;
+        head = (head + 1) & (elements.length - 1);
+        size--;
+
+        return removedData;
+    }
+
+    // Peek at the front element without removing it
+    @SuppressWarnings("unchecked")
+    public T peek() {
+        if (isEmpty()) {
+            throw new RuntimeException("Queue is empty");
+        }
+
+        return (T) elements[head];
+    }
+
+    // Clear all elements
+    public void clear() {
+        int mask = elements.length - 1;
+        for (int i = 0; i < size; i++) {
+            elements[(head + i) & mask] = null;
+        }
+        head = 0;
+        size = 0;
+    }
+
+    // Smallest power of two >= capacity, capped at 1 << 30
+    private static int tableSizeFor(int capacity) {
+        int n = Integer.highestOneBit(capacity - 1) << 1;
+        return n <= 0 ? 1 << 30 : n;
+    }
+
+    // Double the capacity, unwrapping the elements to start at index 0
+    private void grow() {
+        int newCapacity = elements.length * 2;
+        if (newCapacity < 0) {
+            throw new IllegalStateException("Queue too large");
+        }
+
+        Object[] newElements = new Object[newCapacity];
+        int firstPart = elements.length - head;
+        System.arraycopy(elements, head, newElements, 0, firstPart);
+        System.arraycopy(elements, 0, newElements, firstPart, head);
+        elements = newElements;
+        head = 0;
+    }
+
+    // Simple toString implementation
+    @Override
+    public String toString() {
+        if (isEmpty()) return "[]";
+
+        StringBuilder sb = new StringBuilder("Front -> [");
+        int mask = elements.length - 1;
+        for (int i = 0; i < size; i++) {
+            sb.append(elements[(head + i) & mask]);
+            if (i < size - 1) {
+                sb.append(", ");
+            }
+        }
+        sb.append("] <- Rear");
+        return sb.toString();
+    }
+}
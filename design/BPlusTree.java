@@ -0,0 +1,495 @@
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+/**
+ * In-memory B+-tree map.
+ * Each node holds up to fanout keys in one contiguous array, so a lookup touches
+ * about log_fanout(n) nodes instead of log_2(n) separate Node objects, and the
+ * search within a node is a binary search over a cache-friendly array.
+ * Values live only in the leaves, which are linked left to right, so range scans
+ * walk the leaf chain sequentially.
+ *
+ * An empty tree can be bulk-loaded from sorted input in O(n) without any splits.
+ */
+public class BPlusTree<K extends Comparable<K>, V> {
+    private static final int DEFAULT_FANOUT = 64;
+
+    // Keys are shared by both node kinds; size is the number of keys in use
+    private abstract static class Node {
+        final Object[] keys;
+        int size;
+
+        Node(int capacity) {
+            this.keys = new Object[capacity];
+        }
+    }
+
+    private static final class Leaf extends Node {
+        final Object[] values;
+        Leaf next;
+
+        Leaf(int fanout) {
+            // One spare slot so a full node can take a key before it splits
+            super(fanout + 1);
+            this.values = new Object[fanout + 1];
+        }
+    }
+
+    // children[i] holds keys < keys[i]; children[i + 1] holds keys >= keys[i]
+    private static final class Inner extends Node {
+        final Node[] children;
+
+        Inner(int fanout) {
+            super(fanout);
+            this.children = new Node[fanout + 1];
+        }
+    }
+
+    private final int fanout;
+    private final int minLeafKeys;
+    private final int minInnerKeys;
+    private Node root;
+    private int size;
+
+    // Set by insert when a node splits: the separator key and new right sibling
+    private Object splitKey;
+    private Node splitNode;
+
+    // Constructor
+    public BPlusTree() {
+        this(DEFAULT_FANOUT);
+    }
+
+    /**
+     * Constructor with fanout
+     * @param fanout maximum keys per leaf and children per inner node
+     */
+    public BPlusTree(int fanout) {
+        if (fanout < 4) {
+            throw new IllegalArgumentException("Fanout must be at least 4: " + fanout);
+        }
+        this.fanout = fanout;
+        this.minLeafKeys = fanout / 2;
+        this.minInnerKeys = (fanout + 1) / 2 - 1;
+        this.root = new Leaf(fanout);
+    }
+
+    // Get size
+    public int size() {
+        return size;
+    }
+
+    // Check if empty
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Get value for key, or null if absent
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        checkKey(key);
+        Leaf leaf = findLeaf(key);
+        int index = search(leaf, key);
+        return index >= 0 ? (V) leaf.values[index] : null;
+    }
+
+    // Check if key exists
+    public boolean containsKey(K key) {
+        checkKey(key);
+        return search(findLeaf(key), key) >= 0;
+    }
+
+    // Insert or update a key-value pair; returns the previous value or null
+    public V put(K key, V value) {
+        checkKey(key);
+        splitNode = null;
+        V oldValue = insert(root, key, value);
+
+        if (splitNode != null) {
+            // Root split: grow the tree by one level
+            Inner newRoot = new Inner(fanout);
+            newRoot.keys[0] = splitKey;
+            newRoot.children[0] = root;
+            newRoot.children[1] = splitNode;
+            newRoot.size = 1;
+            root = newRoot;
+            splitNode = null;
+            splitKey = null;
+        }
+        return oldValue;
+    }
+
+    // Remove a key; returns its value or null if absent
+    public V remove(K key) {
+        checkKey(key);
+        V oldValue = delete(root, key);
+
+        if (root instanceof Inner && root.size == 0) {
+            // Root lost its last separator: shrink the tree by one level
+            root = ((Inner) root).children[0];
+        }
+        return oldValue;
+    }
+
+    // Remove all entries
+    public void clear() {
+        root = new Leaf(fanout);
+        size = 0;
+    }
+
+    /**
+     * Visit every entry with lo <= key < hi in ascending order; a null bound is unbounded.
+     * Walks the linked leaves, so the scan costs O(log n + k) and allocates nothing.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachInRange(K lo, K hi, BiConsumer<? super K, ? super V> action) {
+        Leaf leaf;
+        int index;
+        if (lo == null) {
+            leaf = leftmostLeaf();
+            index = 0;
+        } else {
+            leaf = findLeaf(lo);
+            index = search(leaf, lo);
+            if (index < 0) {
+                index = -index - 1;
+            }
+        }
+
+        while (leaf != null) {
+            for (; index < leaf.size; index++) {
+                K key = (K) leaf.keys[index];
+                if (hi != null && key.compareTo(hi) >= 0) {
+                    return;
+                }
+                action.accept(key, (V) leaf.values[index]);
+            }
+            leaf = leaf.next;
+            index = 0;
+        }
+    }
+
+    // Visit every entry in ascending order
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        forEachInRange(null, null, action);
+    }
+
+    /**
+     * Replace the contents with sorted entries in O(n), filling leaves bottom-up
+     * instead of inserting one key at a time.
+     * @throws IllegalArgumentException if keys are not strictly ascending or the arrays differ in length
+     */
+    public void bulkLoad(K[] sortedKeys, V[] values) {
+        if (sortedKeys.length != values.length) {
+            throw new IllegalArgumentException("Keys and values differ in length: "
+                    + sortedKeys.length + " vs " + values.length);
+        }
+        for (int i = 0; i < sortedKeys.length; i++) {
+            checkKey(sortedKeys[i]);
+            if (i > 0 && sortedKeys[i - 1].compareTo(sortedKeys[i]) >= 0) {
+                throw new IllegalArgumentException("Keys must be strictly ascending at index " + i);
+            }
+        }
+
+        int n = sortedKeys.length;
+        if (n == 0) {
+            clear();
+            return;
+        }
+
+        // Leaves: spread keys evenly so every leaf is at least half full
+        int leafCount = (n + fanout - 1) / fanout;
+        Node[] level = new Node[leafCount];
+        Object[] firstKeys = new Object[leafCount];
+        Leaf previous = null;
+        int offset = 0;
+        for (int i = 0; i < leafCount; i++) {
+            int count = n / leafCount + (i < n % leafCount ? 1 : 0);
+            Leaf leaf = new Leaf(fanout);
+            System.arraycopy(sortedKeys, offset, leaf.keys, 0, count);
+            System.arraycopy(values, offset, leaf.values, 0, count);
+            leaf.size = count;
+            if (previous != null) {
+                previous.next = leaf;
+            }
+            previous = leaf;
+            level[i] = leaf;
+            firstKeys[i] = sortedKeys[offset];
+            offset += count;
+        }
+
+        // Inner levels: group up to fanout children per node until one root remains
+        while (level.length > 1) {
+            int parentCount = (level.length + fanout - 1) / fanout;
+            Node[] parents = new Node[parentCount];
+            Object[] parentFirstKeys = new Object[parentCount];
+            int child = 0;
+            for (int i = 0; i < parentCount; i++) {
+                int count = level.length / parentCount + (i < level.length % parentCount ? 1 : 0);
+                Inner inner = new Inner(fanout);
+                System.arraycopy(level, child, inner.children, 0, count);
+                // Separator i is the smallest key under children[i + 1]
+                System.arraycopy(firstKeys, child + 1, inner.keys, 0, count - 1);
+                inner.size = count - 1;
+                parents[i] = inner;
+                parentFirstKeys[i] = firstKeys[child];
+                child += count;
+            }
+            level = parents;
+            firstKeys = parentFirstKeys;
+        }
+
+        root = level[0];
+        size = n;
+    }
+
+    private static void checkKey(Object key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+    }
+
+    // Binary search within a node; returns the index, or -(insertion point) - 1 if absent
+    @SuppressWarnings("unchecked")
+    private int search(Node node, K key) {
+        int low = 0;
+        int high = node.size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int compareResult = ((K) node.keys[mid]).compareTo(key);
+            if (compareResult < 0) {
+                low = mid + 1;
+            } else if (compareResult > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    // Index of the child of an inner node that covers key
+    private int childIndex(Inner node, K key) {
+        int index = search(node, key);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    private Leaf findLeaf(K key) {
+        Node node = root;
+        while (node instanceof Inner) {
+            Inner inner = (Inner) node;
+            node = inner.children[childIndex(inner, key)];
+        }
+        return (Leaf) node;
+    }
+
+    private Leaf leftmostLeaf() {
+        Node node = root;
+        while (node instanceof Inner) {
+            node = ((Inner) node).children[0];
+        }
+        return (Leaf) node;
+    }
+
+    // Insert below node; on overflow, splits it and reports the split through splitKey/splitNode
+    @SuppressWarnings("unchecked")
+    private V insert(Node node, K key, V value) {
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            int index = search(leaf, key);
+            if (index >= 0) {
+                V oldValue = (V) leaf.values[index];
+                leaf.values[index] = value;
+                return oldValue;
+            }
+            index = -index - 1;
+            insertAt(leaf.keys, leaf.size, index, key);
+            insertAt(leaf.values, leaf.size, index, value);
+            leaf.size++;
+            size++;
+            if (leaf.size > fanout) {
+                splitLeaf(leaf);
+            }
+            return null;
+        }
+
+        Inner inner = (Inner) node;
+        int index = childIndex(inner, key);
+        V oldValue = insert(inner.children[index], key, value);
+
+        if (splitNode != null) {
+            // Child split: add its new sibling right after it
+            insertAt(inner.keys, inner.size, index, splitKey);
+            insertAt(inner.children, inner.size + 1, index + 1, splitNode);
+            inner.size++;
+            splitNode = null;
+            if (inner.size > fanout - 1) {
+                splitInner(inner);
+            }
+        }
+        return oldValue;
+    }
+
+    private void splitLeaf(Leaf leaf) {
+        Leaf right = new Leaf(fanout);
+        int leftSize = leaf.size / 2;
+        int rightSize = leaf.size - leftSize;
+        moveRange(leaf.keys, leftSize, right.keys, 0, rightSize);
+        moveRange(leaf.values, leftSize, right.values, 0, rightSize);
+        leaf.size = leftSize;
+        right.size = rightSize;
+        right.next = leaf.next;
+        leaf.next = right;
+
+        splitKey = right.keys[0];
+        splitNode = right;
+    }
+
+    private void splitInner(Inner inner) {
+        Inner right = new Inner(fanout);
+        int mid = inner.size / 2;
+        int rightSize = inner.size - mid - 1;
+        // The middle key moves up; keys after it and their children move right
+        splitKey = inner.keys[mid];
+        moveRange(inner.keys, mid + 1, right.keys, 0, rightSize);
+        moveRange(inner.children, mid + 1, right.children, 0, rightSize + 1);
+        inner.keys[mid] = null;
+        inner.size = mid;
+        right.size = rightSize;
+
+        splitNode = right;
+    }
+
+    // Delete below node, fixing any child that drops under the minimum fill
+    @SuppressWarnings("unchecked")
+    private V delete(Node node, K key) {
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            int index = search(leaf, key);
+            if (index < 0) {
+                return null;
+            }
+            V oldValue = (V) leaf.values[index];
+            removeAt(leaf.keys, leaf.size, index);
+            removeAt(leaf.values, leaf.size, index);
+            leaf.size--;
+            size--;
+            return oldValue;
+        }
+
+        Inner inner = (Inner) node;
+        int index = childIndex(inner, key);
+        Node child = inner.children[index];
+        V oldValue = delete(child, key);
+
+        int minKeys = child instanceof Leaf ? minLeafKeys : minInnerKeys;
+        if (child.size < minKeys) {
+            rebalance(inner, index);
+        }
+        return oldValue;
+    }
+
+    // Fix underfull child i of parent by borrowing from a sibling, or merging with one
+    private void rebalance(Inner parent, int i) {
+        Node child = parent.children[i];
+        Node left = i > 0 ? parent.children[i - 1] : null;
+        Node right = i < parent.size ? parent.children[i + 1] : null;
+        int minKeys = child instanceof Leaf ? minLeafKeys : minInnerKeys;
+
+        if (left != null && left.size > minKeys) {
+            borrowFromLeft(parent, i, left, child);
+        } else if (right != null && right.size > minKeys) {
+            borrowFromRight(parent, i, child, right);
+        } else if (left != null) {
+            merge(parent, i - 1, left, child);
+        } else {
+            merge(parent, i, child, right);
+        }
+    }
+
+    private void borrowFromLeft(Inner parent, int i, Node left, Node child) {
+        if (child instanceof Leaf) {
+            Leaf leftLeaf = (Leaf) left;
+            Leaf leaf = (Leaf) child;
+            insertAt(leaf.keys, leaf.size, 0, leftLeaf.keys[leftLeaf.size - 1]);
+            insertAt(leaf.values, leaf.size, 0, leftLeaf.values[leftLeaf.size - 1]);
+            leftLeaf.keys[leftLeaf.size - 1] = null;
+            leftLeaf.values[leftLeaf.size - 1] = null;
+            parent.keys[i - 1] = leaf.keys[0];
+        } else {
+            Inner leftInner = (Inner) left;
+            Inner inner = (Inner) child;
+            // Separator comes down, left's last key goes up, left's last child moves over
+            insertAt(inner.keys, inner.size, 0, parent.keys[i - 1]);
+            insertAt(inner.children, inner.size + 1, 0, leftInner.children[leftInner.size]);
+            parent.keys[i - 1] = leftInner.keys[leftInner.size - 1];
+            leftInner.keys[leftInner.size - 1] = null;
+            leftInner.children[leftInner.size] = null;
+        }
+        left.size--;
+        child.size++;
+    }
+
+    private void borrowFromRight(Inner parent, int i, Node child, Node right) {
+        if (child instanceof Leaf) {
+            Leaf leaf = (Leaf) child;
+            Leaf rightLeaf = (Leaf) right;
+            leaf.keys[leaf.size] = rightLeaf.keys[0];
+            leaf.values[leaf.size] = rightLeaf.values[0];
+            removeAt(rightLeaf.keys, rightLeaf.size, 0);
+            removeAt(rightLeaf.values, rightLeaf.size, 0);
+            parent.keys[i] = rightLeaf.keys[0];
+        } else {
+            Inner inner = (Inner) child;
+            Inner rightInner = (Inner) right;
+            // Separator comes down, right's first key goes up, right's first child moves over
+            inner.keys[inner.size] = parent.keys[i];
+            inner.children[inner.size + 1] = rightInner.children[0];
+            parent.keys[i] = rightInner.keys[0];
+            removeAt(rightInner.keys, rightInner.size, 0);
+            removeAt(rightInner.children, rightInner.size + 1, 0);
+        }
+        right.size--;
+        child.size++;
+    }
+
+    // Merge right into left (children sep and sep + 1 of parent) and drop separator sep
+    private void merge(Inner parent, int sep, Node left, Node right) {
+        if (left instanceof Leaf) {
+            Leaf leftLeaf = (Leaf) left;
+            Leaf rightLeaf = (Leaf) right;
+            System.arraycopy(rightLeaf.keys, 0, leftLeaf.keys, leftLeaf.size, rightLeaf.size);
+            System.arraycopy(rightLeaf.values, 0, leftLeaf.values, leftLeaf.size, rightLeaf.size);
+            leftLeaf.size += rightLeaf.size;
+            leftLeaf.next = rightLeaf.next;
+        } else {
+            Inner leftInner = (Inner) left;
+            Inner rightInner = (Inner) right;
+            leftInner.keys[leftInner.size] = parent.keys[sep];
+            System.arraycopy(rightInner.keys, 0, leftInner.keys, leftInner.size + 1, rightInner.size);
+            System.arraycopy(rightInner.children, 0, leftInner.children, leftInner.size + 1, rightInner.size + 1);
+            leftInner.size += rightInner.size + 1;
+        }
+        removeAt(parent.keys, parent.size, sep);
+        removeAt(parent.children, parent.size + 1, sep + 1);
+        parent.size--;
+    }
+
+    // Shift array[index, length) right by one and store element at index
+    private static void insertAt(Object[] array, int length, int index, Object element) {
+        System.arraycopy(array, index, array, index + 1, length - index);
+        array[index] = element;
+    }
+
+    // Shift array[index + 1, length) left by one, clearing the freed slot
+    private static void removeAt(Object[] array, int length, int index) {
+        System.arraycopy(array, index + 1, array, index, length - index - 1);
+        array[length - 1] = null;
+    }
+
+    // Move count elements to another array, clearing the source slots
+    private static void moveRange(Object[] source, int from, Object[] target, int to, int count) {
+        System.arraycopy(source, from, target, to, count);
+        Arrays.fill(source, from, from + count, null);
+    }
+}
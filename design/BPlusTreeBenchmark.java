@@ -0,0 +1,105 @@
+import java.util.Random;
+
+/**
+ * Benchmark for BPlusTree against a red-black BinarySearchTree on 10M keys
+ * (override with the first argument; run with a large heap, e.g. -Xmx4g).
+ * Measures random inserts, random lookups and a full in-order scan, plus
+ * bulk-loading the B+-tree from sorted keys.
+ */
+public class BPlusTreeBenchmark {
+    private static final int SIZE = 10_000_000;
+    private static final int[] FANOUTS = {16, 64, 256};
+
+    private static volatile long sink;
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : SIZE;
+
+        Integer[] sorted = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = i;
+        }
+        Integer[] shuffled = sorted.clone();
+        Random random = new Random(42);
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Integer temp = shuffled[i];
+            shuffled[i] = shuffled[j];
+            shuffled[j] = temp;
+        }
+
+        System.out.printf("%d keys%n%-22s %12s %12s %12s %12s%n", size,
+                "structure", "insert ns", "lookup ns", "scan ns", "bulk ns");
+        binaryTree(shuffled);
+        for (int fanout : FANOUTS) {
+            bPlusTree(fanout, sorted, shuffled);
+        }
+    }
+
+    private static void binaryTree(Integer[] keys) {
+        BinarySearchTree<Integer> tree = new BinarySearchTree<>(BinarySearchTree.Balance.RED_BLACK);
+
+        long start = System.nanoTime();
+        for (Integer key : keys) {
+            tree.insert(key);
+        }
+        long insert = System.nanoTime() - start;
+
+        long found = 0;
+        start = System.nanoTime();
+        for (Integer key : keys) {
+            if (tree.search(key)) {
+                found++;
+            }
+        }
+        long lookup = System.nanoTime() - start;
+
+        long sum = 0;
+        start = System.nanoTime();
+        for (Integer key : tree) {
+            sum += key;
+        }
+        long scan = System.nanoTime() - start;
+        sink = found + sum;
+
+        print("red-black BST", keys.length, insert, lookup, scan, -1);
+    }
+
+    private static void bPlusTree(int fanout, Integer[] sorted, Integer[] keys) {
+        BPlusTree<Integer, Integer> tree = new BPlusTree<>(fanout);
+
+        long start = System.nanoTime();
+        for (Integer key : keys) {
+            tree.put(key, key);
+        }
+        long insert = System.nanoTime() - start;
+
+        long found = 0;
+        start = System.nanoTime();
+        for (Integer key : keys) {
+            if (tree.get(key) != null) {
+                found++;
+            }
+        }
+        long lookup = System.nanoTime() - start;
+
+        long[] sum = new long[1];
+        start = System.nanoTime();
+        tree.forEach((key, value) -> sum[0] += key);
+        long scan = System.nanoTime() - start;
+
+        tree.clear();
+        start = System.nanoTime();
+        tree.bulkLoad(sorted, sorted);
+        long bulk = System.nanoTime() - start;
+        sink = found + sum[0] + tree.size();
+
+        print("B+-tree fanout " + fanout, keys.length, insert, lookup, scan, bulk);
+    }
+
+    private static void print(String label, int n, long insert, long lookup, long scan, long bulk) {
+        System.out.printf("%-22s %12.1f %12.1f %12.1f %12s%n", label,
+                (double) insert / n, (double) lookup / n, (double) scan / n,
+                bulk < 0 ? "-" : String.format("%.1f", (double) bulk / n));
+    }
+}
@@ -1,130 +1,566 @@
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
 /**
  * Basic Binary Search Tree implementation with fundamental operations
+ *
+ * Can optionally keep itself balanced as an AVL or red-black tree, so sorted
+ * input no longer degrades it into a linked list. All operations are iterative
+ * (nodes keep a parent link), so deep trees cannot overflow the stack.
+ *
+ * Also works as an ordered set: floor/ceiling/higher/lower, lazy range iteration
+ * over [lo, hi) in O(log n + k), and rank/select through subtree sizes.
  */
-public class BinarySearchTree<T extends Comparable<T>> {
+public class BinarySearchTree<T extends Comparable<T>> implements Iterable<T> {
+    // Balancing scheme: AVL is more strictly balanced (faster search),
+    // red-black does fewer rotations on insert and delete
+    public enum Balance {NONE, AVL, RED_BLACK}
+
+    private static final boolean RED = true;
+    private static final boolean BLACK = false;
+
     // Node class
     private class Node {
         T data;
         Node left;
         Node right;
-        
-        Node(T data) {
+        Node parent;
+        int size = 1;        // Nodes in this subtree
+        int height = 1;      // AVL only
+        boolean color = RED; // red-black only
+
+        Node(T data, Node parent) {
             this.data = data;
-            this.left = null;
-            this.right = null;
+            this.parent = parent;
         }
     }
-    
+
     private Node root;
-    
+    private final Balance balance;
+    private int modCount;
+
     // Constructor
     public BinarySearchTree() {
+        this(Balance.NONE);
+    }
+
+    // Constructor with balancing scheme
+    public BinarySearchTree(Balance balance) {
         this.root = null;
+        this.balance = balance;
     }
-    
+
     // Check if empty
     public boolean isEmpty() {
         return root == null;
     }
-    
+
+    // Get size
+    public int size() {
+        return size(root);
+    }
+
     // Insert a value
     public void insert(T data) {
-        root = insertRec(root, data);
-    }
-    
-    private Node insertRec(Node root, T data) {
         if (root == null) {
-            return new Node(data);
+            root = new Node(data, null);
+            root.color = BLACK;
+            modCount++;
+            return;
         }
-        
-        int compareResult = data.compareTo(root.data);
-        
+
+        Node current = root;
+        Node parent;
+        int compareResult;
+        do {
+            parent = current;
+            compareResult = data.compareTo(current.data);
+            if (compareResult < 0) {
+                current = current.left;
+            } else if (compareResult > 0) {
+                current = current.right;
+            } else {
+                return; // Already present
+            }
+        } while (current != null);
+
+        Node node = new Node(data, parent);
         if (compareResult < 0) {
-            root.left = insertRec(root.left, data);
-        } else if (compareResult > 0) {
-            root.right = insertRec(root.right, data);
+            parent.left = node;
+        } else {
+            parent.right = node;
+        }
+        adjustSizes(parent, 1);
+        modCount++;
+
+        if (balance == Balance.AVL) {
+            rebalanceAvl(parent);
+        } else if (balance == Balance.RED_BLACK) {
+            fixAfterInsertion(node);
         }
-        
-        return root;
     }
-    
+
     // Search for a value
     public boolean search(T data) {
-        return searchRec(root, data);
+        return findNode(data) != null;
     }
-    
-    private boolean searchRec(Node root, T data) {
-        if (root == null) {
-            return false;
-        }
-        
-        int compareResult = data.compareTo(root.data);
-        
-        if (compareResult == 0) {
-            return true;
-        } else if (compareResult < 0) {
-            return searchRec(root.left, data);
-        } else {
-            return searchRec(root.right, data);
+
+    private Node findNode(T data) {
+        Node current = root;
+        while (current != null) {
+            int compareResult = data.compareTo(current.data);
+            if (compareResult == 0) {
+                return current;
+            }
+            current = compareResult < 0 ? current.left : current.right;
         }
+        return null;
     }
-    
+
     // Delete a value
     public void delete(T data) {
-        root = deleteRec(root, data);
-    }
-    
-    private Node deleteRec(Node root, T data) {
-        if (root == null) {
-            return null;
+        Node node = findNode(data);
+        if (node == null) {
+            return;
         }
-        
-        int compareResult = data.compareTo(root.data);
-        
-        if (compareResult < 0) {
-            root.left = deleteRec(root.left, data);
-        } else if (compareResult > 0) {
-            root.right = deleteRec(root.right, data);
+
+        // Node with two children: copy the inorder successor, then delete the successor instead
+        if (node.left != null && node.right != null) {
+            Node successor = minNode(node.right);
+            node.data = successor.data;
+            node = successor;
+        }
+
+        // Now node has at most one child
+        Node replacement = node.left != null ? node.left : node.right;
+        Node parent = node.parent;
+
+        if (replacement != null) {
+            replaceChild(parent, node, replacement);
+            adjustSizes(parent, -1);
+            if (balance == Balance.RED_BLACK && node.color == BLACK) {
+                fixAfterDeletion(replacement);
+            }
         } else {
-            // Node with only one child or no child
-            if (root.left == null) {
-                return root.right;
-            } else if (root.right == null) {
-                return root.left;
+            // A black leaf is fixed up while still in place, then unlinked
+            if (balance == Balance.RED_BLACK && node.color == BLACK) {
+                fixAfterDeletion(node);
             }
-            
-            // Node with two children: Get the inorder successor
-            root.data = findMin(root.right);
-            
-            // Delete the inorder successor
-            root.right = deleteRec(root.right, root.data);
-        }
-        
-        return root;
+            parent = node.parent;
+            replaceChild(parent, node, null);
+            adjustSizes(parent, -1);
+        }
+        node.left = node.right = node.parent = null;
+        modCount++;
+
+        if (balance == Balance.AVL) {
+            rebalanceAvl(parent);
+        }
     }
-    
-    // Find the minimum value in a tree
-    private T findMin(Node root) {
-        T minValue = root.data;
+
+    // Find the minimum node in a subtree
+    private Node minNode(Node root) {
         while (root.left != null) {
-            minValue = root.left.data;
             root = root.left;
         }
-        return minValue;
+        return root;
+    }
+
+    // Add delta to the size of node and all its ancestors
+    private void adjustSizes(Node node, int delta) {
+        while (node != null) {
+            node.size += delta;
+            node = node.parent;
+        }
+    }
+
+    // Link replacement into child's position under parent (or as root)
+    private void replaceChild(Node parent, Node child, Node replacement) {
+        if (parent == null) {
+            root = replacement;
+        } else if (parent.left == child) {
+            parent.left = replacement;
+        } else {
+            parent.right = replacement;
+        }
+        if (replacement != null) {
+            replacement.parent = parent;
+        }
+    }
+
+    // Rotate node's right child up; returns the new subtree root
+    private Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        if (pivot.left != null) {
+            pivot.left.parent = node;
+        }
+        replaceChild(node.parent, node, pivot);
+        pivot.left = node;
+        node.parent = pivot;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    // Rotate node's left child up; returns the new subtree root
+    private Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        if (pivot.right != null) {
+            pivot.right.parent = node;
+        }
+        replaceChild(node.parent, node, pivot);
+        pivot.right = node;
+        node.parent = pivot;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    // Subtree size and AVL height bookkeeping
+    private int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    // Recompute size and height from the children
+    private void update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+    }
+
+    // AVL: walk from node to the root, fixing heights and rotating where subtrees differ by more than one
+    private void rebalanceAvl(Node node) {
+        while (node != null) {
+            update(node);
+            int balanceFactor = height(node.left) - height(node.right);
+            if (balanceFactor > 1) {
+                if (height(node.left.left) < height(node.left.right)) {
+                    rotateLeft(node.left);
+                }
+                node = rotateRight(node);
+            } else if (balanceFactor < -1) {
+                if (height(node.right.right) < height(node.right.left)) {
+                    rotateRight(node.right);
+                }
+                node = rotateLeft(node);
+            }
+            node = node.parent;
+        }
+    }
+
+    // Red-black: null-safe accessors (null leaves are black)
+    private boolean colorOf(Node node) {
+        return node == null ? BLACK : node.color;
+    }
+
+    private void setColor(Node node, boolean color) {
+        if (node != null) {
+            node.color = color;
+        }
+    }
+
+    private Node parentOf(Node node) {
+        return node == null ? null : node.parent;
+    }
+
+    private Node leftOf(Node node) {
+        return node == null ? null : node.left;
+    }
+
+    private Node rightOf(Node node) {
+        return node == null ? null : node.right;
     }
-    
+
+    // Red-black: restore the invariants after inserting a red node
+    private void fixAfterInsertion(Node node) {
+        while (node != null && node != root && colorOf(node.parent) == RED) {
+            Node parent = parentOf(node);
+            Node grandparent = parentOf(parent);
+            if (parent == leftOf(grandparent)) {
+                Node uncle = rightOf(grandparent);
+                if (colorOf(uncle) == RED) {
+                    setColor(parent, BLACK);
+                    setColor(uncle, BLACK);
+                    setColor(grandparent, RED);
+                    node = grandparent;
+                } else {
+                    if (node == rightOf(parent)) {
+                        node = parent;
+                        rotateLeft(node);
+                    }
+                    setColor(parentOf(node), BLACK);
+                    setColor(parentOf(parentOf(node)), RED);
+                    rotateRight(parentOf(parentOf(node)));
+                }
+            } else {
+                Node uncle = leftOf(grandparent);
+                if (colorOf(uncle) == RED) {
+                    setColor(parent, BLACK);
+                    setColor(uncle, BLACK);
+                    setColor(grandparent, RED);
+                    node = grandparent;
+                } else {
+                    if (node == leftOf(parent)) {
+                        node = parent;
+                        rotateRight(node);
+                    }
+                    setColor(parentOf(node), BLACK);
+                    setColor(parentOf(parentOf(node)), RED);
+                    rotateLeft(parentOf(parentOf(node)));
+                }
+            }
+        }
+        root.color = BLACK;
+    }
+
+    // Red-black: restore the invariants after removing a black node; node carries the extra black
+    private void fixAfterDeletion(Node node) {
+        while (node != root && colorOf(node) == BLACK) {
+            if (node == leftOf(parentOf(node))) {
+                Node sibling = rightOf(parentOf(node));
+                if (colorOf(sibling) == RED) {
+                    setColor(sibling, BLACK);
+                    setColor(parentOf(node), RED);
+                    rotateLeft(parentOf(node));
+                    sibling = rightOf(parentOf(node));
+                }
+                if (colorOf(leftOf(sibling)) == BLACK && colorOf(rightOf(sibling)) == BLACK) {
+                    setColor(sibling, RED);
+                    node = parentOf(node);
+                } else {
+                    if (colorOf(rightOf(sibling)) == BLACK) {
+                        setColor(leftOf(sibling), BLACK);
+                        setColor(sibling, RED);
+                        rotateRight(sibling);
+                        sibling = rightOf(parentOf(node));
+                    }
+                    setColor(sibling, colorOf(parentOf(node)));
+                    setColor(parentOf(node), BLACK);
+                    setColor(rightOf(sibling), BLACK);
+                    rotateLeft(parentOf(node));
+                    node = root;
+                }
+            } else {
+                Node sibling = leftOf(parentOf(node));
+                if (colorOf(sibling) == RED) {
+                    setColor(sibling, BLACK);
+                    setColor(parentOf(node), RED);
+                    rotateRight(parentOf(node));
+                    sibling = leftOf(parentOf(node));
+                }
+                if (colorOf(rightOf(sibling)) == BLACK && colorOf(leftOf(sibling)) == BLACK) {
+                    setColor(sibling, RED);
+                    node = parentOf(node);
+                } else {
+                    if (colorOf(leftOf(sibling)) == BLACK) {
+                        setColor(rightOf(sibling), BLACK);
+                        setColor(sibling, RED);
+                        rotateLeft(sibling);
+                        sibling = leftOf(parentOf(node));
+                    }
+                    setColor(sibling, colorOf(parentOf(node)));
+                    setColor(parentOf(node), BLACK);
+                    setColor(leftOf(sibling), BLACK);
+                    rotateRight(parentOf(node));
+                    node = root;
+                }
+            }
+        }
+        setColor(node, BLACK);
+    }
+
+    // Smallest value, or null if empty
+    public T first() {
+        return root == null ? null : minNode(root).data;
+    }
+
+    // Largest value, or null if empty
+    public T last() {
+        if (root == null) {
+            return null;
+        }
+        Node current = root;
+        while (current.right != null) {
+            current = current.right;
+        }
+        return current.data;
+    }
+
+    // Greatest value <= data, or null
+    public T floor(T data) {
+        return dataOf(floorNode(data, true));
+    }
+
+    // Greatest value < data, or null
+    public T lower(T data) {
+        return dataOf(floorNode(data, false));
+    }
+
+    // Least value >= data, or null
+    public T ceiling(T data) {
+        return dataOf(ceilingNode(data, true));
+    }
+
+    // Least value > data, or null
+    public T higher(T data) {
+        return dataOf(ceilingNode(data, false));
+    }
+
+    private T dataOf(Node node) {
+        return node == null ? null : node.data;
+    }
+
+    // Deepest node below (or equal to, if inclusive) data on the search path
+    private Node floorNode(T data, boolean inclusive) {
+        Node current = root;
+        Node best = null;
+        while (current != null) {
+            int compareResult = data.compareTo(current.data);
+            if (compareResult > 0 || (inclusive && compareResult == 0)) {
+                best = current;
+                if (compareResult == 0) {
+                    break;
+                }
+                current = current.right;
+            } else {
+                current = current.left;
+            }
+        }
+        return best;
+    }
+
+    // Deepest node above (or equal to, if inclusive) data on the search path
+    private Node ceilingNode(T data, boolean inclusive) {
+        Node current = root;
+        Node best = null;
+        while (current != null) {
+            int compareResult = data.compareTo(current.data);
+            if (compareResult < 0 || (inclusive && compareResult == 0)) {
+                best = current;
+                if (compareResult == 0) {
+                    break;
+                }
+                current = current.left;
+            } else {
+                current = current.right;
+            }
+        }
+        return best;
+    }
+
+    // Number of values strictly less than data, in O(log n) for a balanced tree
+    public int rank(T data) {
+        int rank = 0;
+        Node current = root;
+        while (current != null) {
+            int compareResult = data.compareTo(current.data);
+            if (compareResult <= 0) {
+                if (compareResult == 0) {
+                    return rank + size(current.left);
+                }
+                current = current.left;
+            } else {
+                rank += size(current.left) + 1;
+                current = current.right;
+            }
+        }
+        return rank;
+    }
+
+    // The value with the given rank (0 = smallest), in O(log n) for a balanced tree
+    public T select(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        Node current = root;
+        while (true) {
+            int leftSize = size(current.left);
+            if (index < leftSize) {
+                current = current.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                current = current.right;
+            } else {
+                return current.data;
+            }
+        }
+    }
+
+    // Iterate all values in ascending order
+    @Override
+    public Iterator<T> iterator() {
+        return range(null, null).iterator();
+    }
+
+    /**
+     * Lazily iterate the values in [lo, hi) in ascending order; a null bound is unbounded.
+     * Nothing is copied: the iterator walks successor links, so a scan costs
+     * O(log n + k). It fails fast if the tree is modified during iteration.
+     */
+    public Iterable<T> range(T lo, T hi) {
+        return () -> new RangeIterator(lo == null ? (root == null ? null : minNode(root)) : ceilingNode(lo, true), hi);
+    }
+
+    private class RangeIterator implements Iterator<T> {
+        private Node next;
+        private final T hi;
+        private final int expectedModCount = modCount;
+
+        RangeIterator(Node start, T hi) {
+            this.hi = hi;
+            this.next = inRange(start);
+        }
+
+        private Node inRange(Node node) {
+            return node != null && (hi == null || node.data.compareTo(hi) < 0) ? node : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public T next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            T data = next.data;
+            next = inRange(successor(next));
+            return data;
+        }
+    }
+
     // In-order traversal
     public void inOrder() {
         System.out.print("In-order: ");
-        inOrderRec(root);
+        Node current = root == null ? null : minNode(root);
+        while (current != null) {
+            System.out.print(current.data + " ");
+            current = successor(current);
+        }
         System.out.println();
     }
-    
-    private void inOrderRec(Node root) {
-        if (root != null) {
-            inOrderRec(root.left);
-            System.out.print(root.data + " ");
-            inOrderRec(root.right);
+
+    // Next node in sorted order, following parent links instead of recursing
+    private Node successor(Node node) {
+        if (node.right != null) {
+            return minNode(node.right);
+        }
+        Node parent = node.parent;
+        while (parent != null && node == parent.right) {
+            node = parent;
+            parent = parent.parent;
         }
+        return parent;
     }
 }
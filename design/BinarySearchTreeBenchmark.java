@@ -0,0 +1,97 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Benchmark for BinarySearchTree with each Balance mode on sorted, random and
+ * Zipfian key sequences. Reports nanoseconds per insert, search and delete.
+ * The unbalanced tree degrades to O(n) per operation on sorted keys, so that
+ * combination runs on a smaller input.
+ */
+public class BinarySearchTreeBenchmark {
+    private static final int SIZE = 1_000_000;
+    private static final int UNBALANCED_SORTED_SIZE = 20_000;
+    private static final double ZIPF_EXPONENT = 1.0;
+
+    private static volatile boolean sink;
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : SIZE;
+        Random random = new Random(42);
+
+        Integer[] sorted = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = i;
+        }
+        Integer[] shuffled = sorted.clone();
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Integer temp = shuffled[i];
+            shuffled[i] = shuffled[j];
+            shuffled[j] = temp;
+        }
+        Integer[] zipfian = zipfian(size, random);
+
+        System.out.printf("%-12s %-10s %8s %12s %12s %12s%n", "keys", "balance", "n", "insert ns", "search ns", "delete ns");
+        for (BinarySearchTree.Balance balance : BinarySearchTree.Balance.values()) {
+            Integer[] sortedKeys = balance == BinarySearchTree.Balance.NONE
+                    ? Arrays.copyOf(sorted, Math.min(size, UNBALANCED_SORTED_SIZE))
+                    : sorted;
+            run("sorted", balance, sortedKeys);
+            run("random", balance, shuffled);
+            run("zipfian", balance, zipfian);
+        }
+    }
+
+    private static void run(String label, BinarySearchTree.Balance balance, Integer[] keys) {
+        // One warm-up pass so every mode runs compiled code
+        measure(balance, keys);
+        long[] nanos = measure(balance, keys);
+        System.out.printf("%-12s %-10s %8d %12.1f %12.1f %12.1f%n", label, balance, keys.length,
+                (double) nanos[0] / keys.length, (double) nanos[1] / keys.length, (double) nanos[2] / keys.length);
+    }
+
+    // Insert, search and delete every key; returns elapsed nanoseconds for each phase
+    private static long[] measure(BinarySearchTree.Balance balance, Integer[] keys) {
+        BinarySearchTree<Integer> tree = new BinarySearchTree<>(balance);
+        long[] nanos = new long[3];
+
+        long start = System.nanoTime();
+        for (Integer key : keys) {
+            tree.insert(key);
+        }
+        nanos[0] = System.nanoTime() - start;
+
+        boolean found = true;
+        start = System.nanoTime();
+        for (Integer key : keys) {
+            found &= tree.search(key);
+        }
+        nanos[1] = System.nanoTime() - start;
+        sink = found;
+
+        start = System.nanoTime();
+        for (Integer key : keys) {
+            tree.delete(key);
+        }
+        nanos[2] = System.nanoTime() - start;
+
+        return nanos;
+    }
+
+    // Keys drawn from a Zipf distribution over 0..size-1: a few keys repeat very often
+    private static Integer[] zipfian(int size, Random random) {
+        double[] cumulative = new double[size];
+        double total = 0;
+        for (int rank = 0; rank < size; rank++) {
+            total += 1.0 / Math.pow(rank + 1, ZIPF_EXPONENT);
+            cumulative[rank] = total;
+        }
+
+        Integer[] keys = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+            keys[i] = rank >= 0 ? rank : Math.min(size - 1, -rank - 1);
+        }
+        return keys;
+    }
+}
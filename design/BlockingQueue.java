@@ -0,0 +1,193 @@
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded blocking queue for producer/consumer hand-off.
+ * take() waits for an element instead of failing when the queue is empty, and
+ * put() waits for room once capacity is reached, which pushes back on producers.
+ * Waiting uses ReentrantLock/Condition rather than synchronized, so a waiting
+ * virtual thread unmounts and does not pin its carrier thread.
+ */
+public class BlockingQueue<T> {
+    private final ArrayQueue<T> queue;
+    private final int capacity;
+    private final ReentrantLock lock;
+    private final Condition notEmpty;
+    private final Condition notFull;
+
+    // Constructor
+    public BlockingQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.queue = new ArrayQueue<>(Math.min(capacity, 1 << 16));
+        this.capacity = capacity;
+        this.lock = new ReentrantLock();
+        this.notEmpty = lock.newCondition();
+        this.notFull = lock.newCondition();
+    }
+
+    // Get size
+    public int size() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Check if empty
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    // Number of elements that can be added before put() blocks
+    public int remainingCapacity() {
+        lock.lock();
+        try {
+            return capacity - queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Add element to the rear, waiting for room if the queue is full
+    public void put(T data) throws InterruptedException {
+        checkNotNull(data);
+        lock.lockInterruptibly();
+        try {
+            while (queue.size() == capacity) {
+                notFull.await();
+            }
+            enqueue(data);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Add element to the rear if there is room; returns false immediately if full
+    public boolean offer(T data) {
+        checkNotNull(data);
+        lock.lock();
+        try {
+            if (queue.size() == capacity) {
+                return false;
+            }
+            enqueue(data);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Add element to the rear, waiting up to the timeout for room; returns false on timeout
+    public boolean offer(T data, long timeout, TimeUnit unit) throws InterruptedException {
+        checkNotNull(data);
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (queue.size() == capacity) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            enqueue(data);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Remove element from the front, waiting until one is available
+    public T take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (queue.isEmpty()) {
+                notEmpty.await();
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Remove element from the front, or return null immediately if empty
+    public T poll() {
+        lock.lock();
+        try {
+            return queue.isEmpty() ? null : dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Remove element from the front, waiting up to the timeout; returns null on timeout
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (queue.isEmpty()) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Peek at the front element without removing it, or null if empty
+    public T peek() {
+        lock.lock();
+        try {
+            return queue.isEmpty() ? null : queue.peek();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Clear all elements and wake up blocked producers
+    public void clear() {
+        lock.lock();
+        try {
+            queue.clear();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Enqueue and wake one waiting consumer; caller holds the lock
+    private void enqueue(T data) {
+        queue.enqueue(data);
+        notEmpty.signal();
+    }
+
+    // Dequeue and wake one waiting producer; caller holds the lock
+    private T dequeue() {
+        T data = queue.dequeue();
+        notFull.signal();
+        return data;
+    }
+
+    private static void checkNotNull(Object data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Element cannot be null");
+        }
+    }
+
+    @Override
+    public String toString() {
+        lock.lock();
+        try {
+            return queue.toString();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
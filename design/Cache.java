@@ -0,0 +1,709 @@
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded cache with pluggable eviction (LRU, LFU or W-TinyLFU), an optional
+ * maximum weight, expire-after-write TTL and hit/miss/eviction counters.
+ * Entries are found through a HashMap and ordered by Deque-style doubly-linked
+ * node chains, so get/put/remove and eviction are all O(1).
+ *
+ * Not thread-safe; use buildConcurrent() for a ConcurrentCache.
+ */
+public class Cache<K, V> {
+    // Eviction policies
+    public enum Policy {
+        LRU,      // Evict the least recently used entry
+        LFU,      // Evict the least frequently used entry (LRU among ties)
+        TINY_LFU  // Window LRU + segmented LRU main area with frequency-based admission
+    }
+
+    // Computes the weight of an entry
+    public interface Weigher<K, V> {
+        long weigh(K key, V value);
+    }
+
+    // Cache entry, linked into its policy's deque and into the write-order chain
+    static final class Node<K, V> {
+        final K key;
+        volatile V value;
+        long weight;
+        long writeTime;
+        volatile boolean alive;
+
+        // Links for the policy deque that currently owns this node
+        Node<K, V> prev;
+        Node<K, V> next;
+        NodeDeque<K, V> owner;
+        int queue;
+
+        // Links for the write-order chain used by expiry
+        Node<K, V> writePrev;
+        Node<K, V> writeNext;
+
+        Node(K key, V value, long weight, long writeTime) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.writeTime = writeTime;
+            this.alive = true;
+        }
+    }
+
+    // Doubly-linked chain of nodes, like Deque but linking the cache nodes directly
+    static class NodeDeque<K, V> {
+        private Node<K, V> front;
+        private Node<K, V> rear;
+        long weight;
+
+        boolean isEmpty() {
+            return front == null;
+        }
+
+        Node<K, V> peekFirst() {
+            return front;
+        }
+
+        Node<K, V> peekLast() {
+            return rear;
+        }
+
+        void addLast(Node<K, V> node) {
+            node.owner = this;
+            node.prev = rear;
+            node.next = null;
+            if (rear == null) {
+                front = node;
+            } else {
+                rear.next = node;
+            }
+            rear = node;
+            weight += node.weight;
+        }
+
+        void remove(Node<K, V> node) {
+            if (node.prev == null) {
+                front = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                rear = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            node.owner = null;
+            weight -= node.weight;
+        }
+
+        void moveToLast(Node<K, V> node) {
+            if (node != rear) {
+                remove(node);
+                addLast(node);
+            }
+        }
+
+        void clear() {
+            front = null;
+            rear = null;
+            weight = 0;
+        }
+    }
+
+    // Hit, miss and eviction counters
+    public static final class Stats {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+
+        void recordHit() {
+            hits.increment();
+        }
+
+        void recordMiss() {
+            misses.increment();
+        }
+
+        void recordEviction() {
+            evictions.increment();
+        }
+
+        public long hitCount() {
+            return hits.sum();
+        }
+
+        public long missCount() {
+            return misses.sum();
+        }
+
+        public long evictionCount() {
+            return evictions.sum();
+        }
+
+        public double hitRate() {
+            long hitCount = hitCount();
+            long requests = hitCount + missCount();
+            return requests == 0 ? 1.0 : (double) hitCount / requests;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{hits=" + hitCount() + ", misses=" + missCount()
+                    + ", evictions=" + evictionCount() + ", hitRate=" + hitRate() + "}";
+        }
+    }
+
+    // Key-to-node lookup used by the cache; HashMap here, ConcurrentHashMap in ConcurrentCache
+    interface Table<K, V> {
+        Node<K, V> get(K key);
+        void put(K key, Node<K, V> node);
+        void remove(K key);
+        void clear();
+    }
+
+    // Decides which node is evicted next. Called only by a single thread at a time.
+    abstract static class EvictionPolicy<K, V> {
+        abstract void onAdd(Node<K, V> node);
+
+        abstract void onAccess(Node<K, V> node);
+
+        // Next node to evict; it stays linked until onRemove is called
+        abstract Node<K, V> victim();
+
+        abstract void clear();
+
+        void onRemove(Node<K, V> node) {
+            node.owner.remove(node);
+        }
+
+        // An existing entry was overwritten with a new weight
+        void onUpdate(Node<K, V> node, long newWeight) {
+            node.owner.weight += newWeight - node.weight;
+            node.weight = newWeight;
+            onAccess(node);
+        }
+    }
+
+    // Least recently used: one deque in access order
+    static final class LruPolicy<K, V> extends EvictionPolicy<K, V> {
+        private final NodeDeque<K, V> deque = new NodeDeque<>();
+
+        void onAdd(Node<K, V> node) {
+            deque.addLast(node);
+        }
+
+        void onAccess(Node<K, V> node) {
+            deque.moveToLast(node);
+        }
+
+        Node<K, V> victim() {
+            return deque.peekFirst();
+        }
+
+        void clear() {
+            deque.clear();
+        }
+    }
+
+    // Least frequently used: a chain of frequency buckets, each an LRU deque
+    static final class LfuPolicy<K, V> extends EvictionPolicy<K, V> {
+        private static final class FrequencyBucket<K, V> extends NodeDeque<K, V> {
+            final long frequency;
+            FrequencyBucket<K, V> prev;
+            FrequencyBucket<K, V> next;
+
+            FrequencyBucket(long frequency) {
+                this.frequency = frequency;
+            }
+        }
+
+        private FrequencyBucket<K, V> lowest;
+
+        void onAdd(Node<K, V> node) {
+            if (lowest == null || lowest.frequency != 1) {
+                FrequencyBucket<K, V> bucket = new FrequencyBucket<>(1);
+                bucket.next = lowest;
+                if (lowest != null) {
+                    lowest.prev = bucket;
+                }
+                lowest = bucket;
+            }
+            lowest.addLast(node);
+        }
+
+        void onAccess(Node<K, V> node) {
+            FrequencyBucket<K, V> bucket = (FrequencyBucket<K, V>) node.owner;
+            FrequencyBucket<K, V> next = bucket.next;
+
+            if (next == null || next.frequency != bucket.frequency + 1) {
+                next = new FrequencyBucket<>(bucket.frequency + 1);
+                next.prev = bucket;
+                next.next = bucket.next;
+                if (bucket.next != null) {
+                    bucket.next.prev = next;
+                }
+                bucket.next = next;
+            }
+
+            bucket.remove(node);
+            next.addLast(node);
+            unlinkIfEmpty(bucket);
+        }
+
+        @Override
+        void onRemove(Node<K, V> node) {
+            FrequencyBucket<K, V> bucket = (FrequencyBucket<K, V>) node.owner;
+            bucket.remove(node);
+            unlinkIfEmpty(bucket);
+        }
+
+        Node<K, V> victim() {
+            return lowest == null ? null : lowest.peekFirst();
+        }
+
+        void clear() {
+            lowest = null;
+        }
+
+        private void unlinkIfEmpty(FrequencyBucket<K, V> bucket) {
+            if (!bucket.isEmpty()) {
+                return;
+            }
+            if (bucket.prev == null) {
+                lowest = bucket.next;
+            } else {
+                bucket.prev.next = bucket.next;
+            }
+            if (bucket.next != null) {
+                bucket.next.prev = bucket.prev;
+            }
+        }
+    }
+
+    // W-TinyLFU: new entries enter a small LRU window, then compete by estimated
+    // frequency to stay in a segmented LRU (probation + protected) main area
+    static final class TinyLfuPolicy<K, V> extends EvictionPolicy<K, V> {
+        private static final int WINDOW = 0;
+        private static final int PROBATION = 1;
+        private static final int PROTECTED = 2;
+
+        private final NodeDeque<K, V> window = new NodeDeque<>();
+        private final NodeDeque<K, V> probation = new NodeDeque<>();
+        private final NodeDeque<K, V> protectedDeque = new NodeDeque<>();
+        private final FrequencySketch sketch;
+        private final long maxWindowWeight;
+        private final long maxProtectedWeight;
+
+        TinyLfuPolicy(long maximumWeight) {
+            this.maxWindowWeight = Math.max(1, maximumWeight / 100);
+            // 80% of the main space, at least 1 once there is room for probation too (split to avoid overflow)
+            long mainWeight = maximumWeight - maxWindowWeight;
+            this.maxProtectedWeight = mainWeight < 2 ? 0
+                    : Math.max(1, mainWeight / 10 * 8 + mainWeight % 10 * 8 / 10);
+            this.sketch = new FrequencySketch(maximumWeight);
+        }
+
+        void onAdd(Node<K, V> node) {
+            sketch.increment(node.key);
+            node.queue = WINDOW;
+            window.addLast(node);
+
+            // Window overflow moves into probation, where it competes for admission
+            while (window.weight > maxWindowWeight && window.peekFirst() != node) {
+                Node<K, V> candidate = window.peekFirst();
+                window.remove(candidate);
+                candidate.queue = PROBATION;
+                probation.addLast(candidate);
+            }
+        }
+
+        void onAccess(Node<K, V> node) {
+            sketch.increment(node.key);
+            switch (node.queue) {
+                case WINDOW:
+                    window.moveToLast(node);
+                    break;
+                case PROBATION:
+                    probation.remove(node);
+                    node.queue = PROTECTED;
+                    protectedDeque.addLast(node);
+                    demoteProtected();
+                    break;
+                default:
+                    protectedDeque.moveToLast(node);
+                    break;
+            }
+        }
+
+        // Keep the protected segment within its share; overflow goes back to probation
+        private void demoteProtected() {
+            while (protectedDeque.weight > maxProtectedWeight) {
+                Node<K, V> demoted = protectedDeque.peekFirst();
+                protectedDeque.remove(demoted);
+                demoted.queue = PROBATION;
+                probation.addLast(demoted);
+            }
+        }
+
+        Node<K, V> victim() {
+            if (!probation.isEmpty()) {
+                // Newest arrival in probation vs. its oldest entry: keep the more frequent one
+                Node<K, V> victim = probation.peekFirst();
+                Node<K, V> candidate = probation.peekLast();
+                if (candidate == victim) {
+                    return victim;
+                }
+                return sketch.frequency(candidate.key) > sketch.frequency(victim.key) ? victim : candidate;
+            }
+            if (!protectedDeque.isEmpty()) {
+                return protectedDeque.peekFirst();
+            }
+            return window.peekFirst();
+        }
+
+        void clear() {
+            window.clear();
+            probation.clear();
+            protectedDeque.clear();
+        }
+    }
+
+    // Count-min sketch of recent access frequencies with periodic halving (aging)
+    static final class FrequencySketch {
+        private static final int DEPTH = 4;
+        private static final int MAX_COUNT = 15;
+        private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+
+        private final byte[][] counters;
+        private final int mask;
+        private final long sampleSize;
+        private long additions;
+
+        FrequencySketch(long maximumWeight) {
+            int width = (int) Math.min(1 << 22, Math.max(16, maximumWeight));
+            width = Integer.highestOneBit(width - 1) << 1;
+            this.counters = new byte[DEPTH][width];
+            this.mask = width - 1;
+            this.sampleSize = 10L * width;
+        }
+
+        void increment(Object key) {
+            int hash = key.hashCode();
+            for (int row = 0; row < DEPTH; row++) {
+                int index = indexOf(hash, row);
+                if (counters[row][index] < MAX_COUNT) {
+                    counters[row][index]++;
+                }
+            }
+            if (++additions >= sampleSize) {
+                reset();
+            }
+        }
+
+        int frequency(Object key) {
+            int hash = key.hashCode();
+            int min = MAX_COUNT;
+            for (int row = 0; row < DEPTH; row++) {
+                min = Math.min(min, counters[row][indexOf(hash, row)]);
+            }
+            return min;
+        }
+
+        private int indexOf(int hash, int row) {
+            int h = hash * SEEDS[row];
+            return (h ^ (h >>> 16)) & mask;
+        }
+
+        // Halve every counter so old popularity fades
+        private void reset() {
+            for (byte[] row : counters) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = (byte) (row[i] >>> 1);
+                }
+            }
+            additions /= 2;
+        }
+    }
+
+    public static class Builder<K, V> {
+        private Policy policy = Policy.LRU;
+        private long maximumWeight = Long.MAX_VALUE;
+        private Weigher<K, V> weigher = (key, value) -> 1;
+        private long expireAfterWriteNanos = 0;
+        private LongSupplier ticker = System::nanoTime;
+
+        public Builder<K, V> policy(Policy policy) {
+            if (policy == null) {
+                throw new IllegalArgumentException("Policy cannot be null");
+            }
+            this.policy = policy;
+            return this;
+        }
+
+        // Bound the number of entries
+        public Builder<K, V> maximumSize(long maximumSize) {
+            return maximumWeight(maximumSize, (key, value) -> 1);
+        }
+
+        // Bound the total weight of entries
+        public Builder<K, V> maximumWeight(long maximumWeight, Weigher<K, V> weigher) {
+            if (maximumWeight <= 0 || weigher == null) {
+                throw new IllegalArgumentException("Maximum weight must be positive and weigher non-null");
+            }
+            this.maximumWeight = maximumWeight;
+            this.weigher = weigher;
+            return this;
+        }
+
+        // Expire entries a fixed time after they were last written
+        public Builder<K, V> expireAfterWrite(long duration, TimeUnit unit) {
+            if (duration <= 0) {
+                throw new IllegalArgumentException("Duration must be positive: " + duration);
+            }
+            this.expireAfterWriteNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        // Time source in nanoseconds (for tests)
+        public Builder<K, V> ticker(LongSupplier ticker) {
+            this.ticker = ticker;
+            return this;
+        }
+
+        public Cache<K, V> build() {
+            return new Cache<>(this, hashMapTable());
+        }
+
+        public ConcurrentCache<K, V> buildConcurrent() {
+            return new ConcurrentCache<>(this);
+        }
+
+        private EvictionPolicy<K, V> createPolicy() {
+            switch (policy) {
+                case LFU:
+                    return new LfuPolicy<>();
+                case TINY_LFU:
+                    return new TinyLfuPolicy<>(maximumWeight);
+                default:
+                    return new LruPolicy<>();
+            }
+        }
+    }
+
+    final Table<K, V> table;
+    final Stats stats;
+    final LongSupplier ticker;
+    private final EvictionPolicy<K, V> policy;
+    private final long maximumWeight;
+    private final Weigher<K, V> weigher;
+    private final long expireAfterWriteNanos;
+
+    private volatile int size;
+    private long totalWeight;
+
+    // Write-order chain; with a fixed TTL the head always expires first
+    private Node<K, V> writeHead;
+    private Node<K, V> writeTail;
+
+    Cache(Builder<K, V> builder, Table<K, V> table) {
+        this.table = table;
+        this.stats = new Stats();
+        this.ticker = builder.ticker;
+        this.policy = builder.createPolicy();
+        this.maximumWeight = builder.maximumWeight;
+        this.weigher = builder.weigher;
+        this.expireAfterWriteNanos = builder.expireAfterWriteNanos;
+    }
+
+    private static <K, V> Table<K, V> hashMapTable() {
+        HashMap<K, Node<K, V>> map = new HashMap<>();
+        return new Table<K, V>() {
+            public Node<K, V> get(K key) { return map.get(key); }
+            public void put(K key, Node<K, V> node) { map.put(key, node); }
+            public void remove(K key) { map.remove(key); }
+            public void clear() { map.clear(); }
+        };
+    }
+
+    // Get size
+    public int size() {
+        return size;
+    }
+
+    // Check if empty
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Hit, miss and eviction counters
+    public Stats stats() {
+        return stats;
+    }
+
+    // Get the cached value for a key, or null if absent or expired
+    public V get(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+
+        Node<K, V> node = table.get(key);
+        if (node == null || isExpired(node, ticker.getAsLong())) {
+            if (node != null) {
+                removeNode(node);
+            }
+            stats.recordMiss();
+            return null;
+        }
+
+        policy.onAccess(node);
+        stats.recordHit();
+        return node.value;
+    }
+
+    // Get the cached value for a key, loading and caching it on a miss
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = get(key);
+        if (value == null) {
+            value = loader.apply(key);
+            if (value != null) {
+                put(key, value);
+            }
+        }
+        return value;
+    }
+
+    // Put a key-value pair, evicting entries if the cache grows past its maximum
+    public V put(K key, V value) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("Key and value cannot be null");
+        }
+        long weight = weigher.weigh(key, value);
+        if (weight < 0) {
+            throw new IllegalArgumentException("Weight cannot be negative: " + weight);
+        }
+
+        long now = ticker.getAsLong();
+        Node<K, V> node = table.get(key);
+        V oldValue = null;
+
+        if (node != null) {
+            oldValue = isExpired(node, now) ? null : node.value;
+            node.value = value;
+            node.writeTime = now;
+            totalWeight += weight - node.weight;
+            policy.onUpdate(node, weight);
+            unlinkWrite(node);
+            linkWrite(node);
+        } else {
+            node = new Node<>(key, value, weight, now);
+            table.put(key, node);
+            policy.onAdd(node);
+            linkWrite(node);
+            totalWeight += weight;
+            size++;
+        }
+
+        expireEntries(now);
+        evictEntries();
+        return oldValue;
+    }
+
+    // Remove a key-value pair
+    public V remove(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+
+        Node<K, V> node = table.get(key);
+        if (node == null) {
+            return null;
+        }
+        removeNode(node);
+        return isExpired(node, ticker.getAsLong()) ? null : node.value;
+    }
+
+    // Clear all entries
+    public void clear() {
+        for (Node<K, V> node = writeHead; node != null; node = node.writeNext) {
+            node.alive = false;
+        }
+        table.clear();
+        policy.clear();
+        writeHead = null;
+        writeTail = null;
+        totalWeight = 0;
+        size = 0;
+    }
+
+    // Remove expired entries now instead of waiting for the next write
+    public void cleanUp() {
+        expireEntries(ticker.getAsLong());
+    }
+
+    boolean isExpired(Node<K, V> node, long now) {
+        return expireAfterWriteNanos > 0 && now - node.writeTime >= expireAfterWriteNanos;
+    }
+
+    // Record a read that happened outside the policy (used by ConcurrentCache)
+    void recordAccess(Node<K, V> node) {
+        if (node.alive) {
+            policy.onAccess(node);
+        }
+    }
+
+    // Unlink a node from the table, its policy deque and the write-order chain
+    void removeNode(Node<K, V> node) {
+        table.remove(node.key);
+        policy.onRemove(node);
+        unlinkWrite(node);
+        node.alive = false;
+        totalWeight -= node.weight;
+        size--;
+    }
+
+    private void expireEntries(long now) {
+        while (writeHead != null && isExpired(writeHead, now)) {
+            removeNode(writeHead);
+        }
+    }
+
+    private void evictEntries() {
+        while (totalWeight > maximumWeight) {
+            Node<K, V> victim = policy.victim();
+            if (victim == null) {
+                break;
+            }
+            removeNode(victim);
+            stats.recordEviction();
+        }
+    }
+
+    private void linkWrite(Node<K, V> node) {
+        node.writePrev = writeTail;
+        node.writeNext = null;
+        if (writeTail == null) {
+            writeHead = node;
+        } else {
+            writeTail.writeNext = node;
+        }
+        writeTail = node;
+    }
+
+    private void unlinkWrite(Node<K, V> node) {
+        if (node.writePrev == null) {
+            writeHead = node.writeNext;
+        } else {
+            node.writePrev.writeNext = node.writeNext;
+        }
+        if (node.writeNext == null) {
+            writeTail = node.writePrev;
+        } else {
+            node.writeNext.writePrev = node.writePrev;
+        }
+        node.writePrev = null;
+        node.writeNext = null;
+    }
+}
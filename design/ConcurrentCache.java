@@ -0,0 +1,160 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe Cache. Lookups go through a ConcurrentHashMap without locking;
+ * the access they cause is written into a small striped read buffer and
+ * replayed into the eviction policy later, so readers never wait on each other.
+ * Writes take a single lock and drain the read buffers first.
+ *
+ * Create with new Cache.Builder<K, V>()...buildConcurrent().
+ */
+public class ConcurrentCache<K, V> extends Cache<K, V> {
+    private static final int BUFFER_SIZE = 16;
+
+    // Lossy ring of recent reads; events are dropped rather than blocking when full
+    private static final class ReadBuffer<K, V> {
+        final AtomicReferenceArray<Node<K, V>> slots = new AtomicReferenceArray<>(BUFFER_SIZE);
+        final AtomicInteger writeIndex = new AtomicInteger();
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReadBuffer<K, V>[] readBuffers;
+
+    @SuppressWarnings("unchecked")
+    ConcurrentCache(Builder<K, V> builder) {
+        super(builder, concurrentTable());
+        int stripes = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1) << 1;
+        this.readBuffers = (ReadBuffer<K, V>[]) new ReadBuffer<?, ?>[Math.max(stripes, 2)];
+        for (int i = 0; i < readBuffers.length; i++) {
+            readBuffers[i] = new ReadBuffer<>();
+        }
+    }
+
+    private static <K, V> Table<K, V> concurrentTable() {
+        ConcurrentHashMap<K, Node<K, V>> map = new ConcurrentHashMap<>();
+        return new Table<K, V>() {
+            public Node<K, V> get(K key) { return map.get(key); }
+            public void put(K key, Node<K, V> node) { map.put(key, node); }
+            public void remove(K key) { map.remove(key); }
+            public void clear() { map.clear(); }
+        };
+    }
+
+    // Get the cached value for a key without locking
+    @Override
+    public V get(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+
+        Node<K, V> node = table.get(key);
+        if (node == null) {
+            stats.recordMiss();
+            return null;
+        }
+        if (isExpired(node, ticker.getAsLong())) {
+            expire(node);
+            stats.recordMiss();
+            return null;
+        }
+
+        V value = node.value;
+        recordRead(node);
+        stats.recordHit();
+        return value;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        lock.lock();
+        try {
+            drainReadBuffers();
+            return super.put(key, value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public V remove(K key) {
+        lock.lock();
+        try {
+            drainReadBuffers();
+            return super.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            drainReadBuffers();
+            super.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void cleanUp() {
+        lock.lock();
+        try {
+            drainReadBuffers();
+            super.cleanUp();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Remove an expired node unless another thread already replaced or removed it
+    private void expire(Node<K, V> node) {
+        lock.lock();
+        try {
+            if (node.alive && table.get(node.key) == node) {
+                removeNode(node);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Append a read to this thread's buffer; drain when it fills up and the lock is free
+    private void recordRead(Node<K, V> node) {
+        long id = Thread.currentThread().getId();
+        ReadBuffer<K, V> buffer = readBuffers[(int) (id ^ (id >>> 16)) & (readBuffers.length - 1)];
+
+        int index = buffer.writeIndex.getAndIncrement();
+        if (index < BUFFER_SIZE) {
+            buffer.slots.lazySet(index, node);
+            if (index < BUFFER_SIZE - 1) {
+                return;
+            }
+        }
+
+        if (lock.tryLock()) {
+            try {
+                drainReadBuffers();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Replay buffered reads into the policy; caller holds the lock
+    private void drainReadBuffers() {
+        for (ReadBuffer<K, V> buffer : readBuffers) {
+            int count = Math.min(buffer.writeIndex.get(), BUFFER_SIZE);
+            for (int i = 0; i < count; i++) {
+                Node<K, V> node = buffer.slots.getAndSet(i, null);
+                if (node != null) {
+                    recordAccess(node);
+                }
+            }
+            buffer.writeIndex.set(0);
+        }
+    }
+}
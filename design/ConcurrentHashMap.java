@@ -0,0 +1,518 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Thread-safe HashMap for sharing lookup tables between many threads.
+ * Empty buckets are filled with a CAS, non-empty buckets are updated while
+ * holding the lock of their head node, and reads never lock. When the table
+ * grows, every thread that runs into the resize helps move buckets across.
+ */
+public class ConcurrentHashMap<K, V> {
+    // Node class for the bucket chains
+    private static class Node<K, V> {
+        final int hash;
+        final K key;
+        volatile V value;
+        volatile Node<K, V> next;
+
+        Node(int hash, K key, V value, Node<K, V> next) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    // Placed in a bucket of the old table once its chain has been moved
+    private static class ForwardingNode<K, V> extends Node<K, V> {
+        final Resize<K, V> resize;
+
+        ForwardingNode(Resize<K, V> resize) {
+            super(MOVED, null, null, null);
+            this.resize = resize;
+        }
+    }
+
+    // Locked placeholder that keeps an empty bucket while computeIfAbsent runs
+    private static class ReservationNode<K, V> extends Node<K, V> {
+        ReservationNode() {
+            super(RESERVED, null, null, null);
+        }
+    }
+
+    // State shared by all threads taking part in one resize
+    private static class Resize<K, V> {
+        final AtomicReferenceArray<Node<K, V>> oldTable;
+        final AtomicReferenceArray<Node<K, V>> newTable;
+        final ForwardingNode<K, V> forward;
+        final AtomicInteger transferIndex;     // buckets below this are still unclaimed
+        final AtomicInteger bucketsRemaining;  // buckets not yet moved
+
+        Resize(AtomicReferenceArray<Node<K, V>> oldTable) {
+            this.oldTable = oldTable;
+            this.newTable = new AtomicReferenceArray<>(oldTable.length() * 2);
+            this.forward = new ForwardingNode<>(this);
+            this.transferIndex = new AtomicInteger(oldTable.length());
+            this.bucketsRemaining = new AtomicInteger(oldTable.length());
+        }
+    }
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+    // Buckets a thread claims at a time while helping a resize
+    private static final int TRANSFER_STRIDE = 16;
+
+    // Hashes of special nodes; real hashes are always non-negative
+    private static final int MOVED = -1;
+    private static final int RESERVED = -2;
+
+    private volatile AtomicReferenceArray<Node<K, V>> table;
+    private volatile Resize<K, V> resize;
+    private final LongAdder size;
+    private final float loadFactor;
+
+    // Constructor
+    public ConcurrentHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    // Constructor with initial capacity (rounded up to a power of two)
+    public ConcurrentHashMap(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative: " + initialCapacity);
+        }
+        int capacity = Math.min(Integer.highestOneBit(Math.max(initialCapacity, 2) - 1) << 1, MAXIMUM_CAPACITY);
+        this.table = new AtomicReferenceArray<>(capacity);
+        this.size = new LongAdder();
+        this.loadFactor = DEFAULT_LOAD_FACTOR;
+    }
+
+    // Get size (a moment-in-time estimate while other threads are writing)
+    public int size() {
+        long n = size.sum();
+        return n < 0 ? 0 : (int) Math.min(n, Integer.MAX_VALUE);
+    }
+
+    // Check if empty
+    public boolean isEmpty() {
+        return size.sum() <= 0;
+    }
+
+    // Spread the higher bits downward and clear the sign bit
+    private static int spread(int hashCode) {
+        return (hashCode ^ (hashCode >>> 16)) & 0x7FFFFFFF;
+    }
+
+    // Get value for a key without locking
+    public V get(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+
+        int hash = spread(key.hashCode());
+        AtomicReferenceArray<Node<K, V>> tab = table;
+
+        while (true) {
+            Node<K, V> entry = tab.get(hash & (tab.length() - 1));
+            if (entry instanceof ForwardingNode) {
+                // Bucket already moved; look in the new table
+                tab = ((ForwardingNode<K, V>) entry).resize.newTable;
+                continue;
+            }
+
+            while (entry != null) {
+                if (entry.hash == hash && key.equals(entry.key)) {
+                    return entry.value;
+                }
+                entry = entry.next;
+            }
+            return null; // Key not found
+        }
+    }
+
+    // Check if the hash map contains a key
+    public boolean containsKey(K key) {
+        return get(key) != null;
+    }
+
+    // Put a key-value pair
+    public V put(K key, V value) {
+        return putVal(key, value, false);
+    }
+
+    // Put a key-value pair only if the key is not mapped yet
+    public V putIfAbsent(K key, V value) {
+        return putVal(key, value, true);
+    }
+
+    private V putVal(K key, V value, boolean onlyIfAbsent) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("Key and value cannot be null");
+        }
+
+        int hash = spread(key.hashCode());
+        AtomicReferenceArray<Node<K, V>> tab = table;
+
+        while (true) {
+            int index = hash & (tab.length() - 1);
+            Node<K, V> head = tab.get(index);
+
+            if (head == null) {
+                // Empty bucket: insert without locking
+                if (tab.compareAndSet(index, null, new Node<>(hash, key, value, null))) {
+                    addCount(1);
+                    return null;
+                }
+            } else if (head instanceof ForwardingNode) {
+                tab = helpResize((ForwardingNode<K, V>) head);
+            } else {
+                synchronized (head) {
+                    // The head may have changed before we got the lock
+                    if (tab.get(index) != head) {
+                        continue;
+                    }
+
+                    Node<K, V> entry = head;
+                    while (true) {
+                        if (entry.hash == hash && key.equals(entry.key)) {
+                            V oldValue = entry.value;
+                            if (!onlyIfAbsent) {
+                                entry.value = value;
+                            }
+                            return oldValue;
+                        }
+                        if (entry.next == null) {
+                            entry.next = new Node<>(hash, key, value, null);
+                            break;
+                        }
+                        entry = entry.next;
+                    }
+                }
+                addCount(1);
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Get the value for a key, computing and inserting it if absent.
+     * The mapping function runs at most once per call, while holding the bucket lock.
+     * @return the existing or computed value, or null if the function returned null
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        if (key == null || mappingFunction == null) {
+            throw new IllegalArgumentException("Key and mapping function cannot be null");
+        }
+
+        int hash = spread(key.hashCode());
+        AtomicReferenceArray<Node<K, V>> tab = table;
+
+        while (true) {
+            int index = hash & (tab.length() - 1);
+            Node<K, V> head = tab.get(index);
+
+            if (head == null) {
+                // Reserve the empty bucket so concurrent writers wait for the function
+                ReservationNode<K, V> reservation = new ReservationNode<>();
+                V value = null;
+                synchronized (reservation) {
+                    if (!tab.compareAndSet(index, null, reservation)) {
+                        continue;
+                    }
+                    try {
+                        value = mappingFunction.apply(key);
+                    } finally {
+                        tab.set(index, value == null ? null : new Node<>(hash, key, value, null));
+                    }
+                }
+                if (value != null) {
+                    addCount(1);
+                }
+                return value;
+            } else if (head instanceof ForwardingNode) {
+                tab = helpResize((ForwardingNode<K, V>) head);
+            } else {
+                // Fast path: existing mapping found without locking
+                for (Node<K, V> entry = head; entry != null; entry = entry.next) {
+                    if (entry.hash == hash && key.equals(entry.key)) {
+                        return entry.value;
+                    }
+                }
+
+                V value;
+                synchronized (head) {
+                    if (tab.get(index) != head) {
+                        continue;
+                    }
+
+                    Node<K, V> entry = head;
+                    while (true) {
+                        if (entry.hash == hash && key.equals(entry.key)) {
+                            return entry.value;
+                        }
+                        if (entry.next == null) {
+                            break;
+                        }
+                        entry = entry.next;
+                    }
+
+                    value = mappingFunction.apply(key);
+                    if (value == null) {
+                        return null;
+                    }
+                    entry.next = new Node<>(hash, key, value, null);
+                }
+                addCount(1);
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Insert the value if the key is absent, otherwise replace the current value
+     * with remappingFunction(oldValue, value). A null result removes the mapping.
+     * @return the new value, or null if the mapping was removed
+     */
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        if (key == null || value == null || remappingFunction == null) {
+            throw new IllegalArgumentException("Key, value and remapping function cannot be null");
+        }
+
+        int hash = spread(key.hashCode());
+        AtomicReferenceArray<Node<K, V>> tab = table;
+
+        while (true) {
+            int index = hash & (tab.length() - 1);
+            Node<K, V> head = tab.get(index);
+
+            if (head == null) {
+                if (tab.compareAndSet(index, null, new Node<>(hash, key, value, null))) {
+                    addCount(1);
+                    return value;
+                }
+            } else if (head instanceof ForwardingNode) {
+                tab = helpResize((ForwardingNode<K, V>) head);
+            } else {
+                int delta;
+                V newValue;
+                synchronized (head) {
+                    if (tab.get(index) != head) {
+                        continue;
+                    }
+
+                    Node<K, V> prev = null;
+                    Node<K, V> entry = head;
+                    while (entry != null && !(entry.hash == hash && key.equals(entry.key))) {
+                        prev = entry;
+                        entry = entry.next;
+                    }
+
+                    if (entry == null) {
+                        prev.next = new Node<>(hash, key, value, null);
+                        newValue = value;
+                        delta = 1;
+                    } else {
+                        newValue = remappingFunction.apply(entry.value, value);
+                        if (newValue != null) {
+                            entry.value = newValue;
+                            delta = 0;
+                        } else {
+                            unlink(tab, index, prev, entry);
+                            delta = -1;
+                        }
+                    }
+                }
+                if (delta != 0) {
+                    addCount(delta);
+                }
+                return newValue;
+            }
+        }
+    }
+
+    // Remove a key-value pair
+    public V remove(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+
+        int hash = spread(key.hashCode());
+        AtomicReferenceArray<Node<K, V>> tab = table;
+
+        while (true) {
+            int index = hash & (tab.length() - 1);
+            Node<K, V> head = tab.get(index);
+
+            if (head == null) {
+                return null; // Key not found
+            } else if (head instanceof ForwardingNode) {
+                tab = helpResize((ForwardingNode<K, V>) head);
+            } else {
+                V oldValue = null;
+                synchronized (head) {
+                    if (tab.get(index) != head) {
+                        continue;
+                    }
+
+                    Node<K, V> prev = null;
+                    for (Node<K, V> entry = head; entry != null; prev = entry, entry = entry.next) {
+                        if (entry.hash == hash && key.equals(entry.key)) {
+                            oldValue = entry.value;
+                            unlink(tab, index, prev, entry);
+                            break;
+                        }
+                    }
+                }
+                if (oldValue != null) {
+                    addCount(-1);
+                }
+                return oldValue;
+            }
+        }
+    }
+
+    // Clear all entries
+    public void clear() {
+        AtomicReferenceArray<Node<K, V>> tab = table;
+        int index = 0;
+
+        while (index < tab.length()) {
+            Node<K, V> head = tab.get(index);
+
+            if (head == null) {
+                index++;
+            } else if (head instanceof ForwardingNode) {
+                tab = helpResize((ForwardingNode<K, V>) head);
+                index = 0;
+            } else {
+                int removed = 0;
+                synchronized (head) {
+                    if (tab.get(index) != head) {
+                        continue;
+                    }
+                    for (Node<K, V> entry = head; entry != null; entry = entry.next) {
+                        removed++;
+                    }
+                    tab.set(index, null);
+                }
+                addCount(-removed);
+                index++;
+            }
+        }
+    }
+
+    // Unlink an entry from its chain; caller holds the bucket lock
+    private static <K, V> void unlink(AtomicReferenceArray<Node<K, V>> tab, int index,
+                                      Node<K, V> prev, Node<K, V> entry) {
+        if (prev == null) {
+            tab.set(index, entry.next); // Removing head of the bucket
+        } else {
+            prev.next = entry.next;
+        }
+    }
+
+    // Update the size counter and start a resize if the table is too full
+    private void addCount(int delta) {
+        size.add(delta);
+        if (delta <= 0) {
+            return;
+        }
+
+        AtomicReferenceArray<Node<K, V>> tab = table;
+        if (tab.length() < MAXIMUM_CAPACITY && size.sum() >= (long) (tab.length() * loadFactor)) {
+            startResize(tab);
+        }
+    }
+
+    // Start a resize of the given table, or join the one already running
+    private void startResize(AtomicReferenceArray<Node<K, V>> tab) {
+        Resize<K, V> current;
+        synchronized (this) {
+            current = resize;
+            if (current == null) {
+                // Another thread may have finished growing this table already
+                if (table != tab) {
+                    return;
+                }
+                current = new Resize<>(tab);
+                resize = current;
+            }
+        }
+        transfer(current);
+    }
+
+    // Help move buckets for the resize a forwarding node belongs to, then return its new table
+    private AtomicReferenceArray<Node<K, V>> helpResize(ForwardingNode<K, V> forward) {
+        transfer(forward.resize);
+        return forward.resize.newTable;
+    }
+
+    // Claim strides of buckets and move them until none are left to claim
+    private void transfer(Resize<K, V> r) {
+        int n = r.oldTable.length();
+
+        while (true) {
+            int hi = r.transferIndex.get();
+            if (hi <= 0) {
+                return;
+            }
+            int lo = Math.max(0, hi - TRANSFER_STRIDE);
+            if (!r.transferIndex.compareAndSet(hi, lo)) {
+                continue;
+            }
+
+            for (int index = hi - 1; index >= lo; index--) {
+                moveBucket(r, index, n);
+            }
+
+            if (r.bucketsRemaining.addAndGet(lo - hi) == 0) {
+                // Last bucket moved: publish the new table
+                synchronized (this) {
+                    table = r.newTable;
+                    resize = null;
+                }
+                return;
+            }
+        }
+    }
+
+    // Split one old bucket into its low and high halves in the new table
+    private void moveBucket(Resize<K, V> r, int index, int n) {
+        AtomicReferenceArray<Node<K, V>> oldTable = r.oldTable;
+
+        while (true) {
+            Node<K, V> head = oldTable.get(index);
+            if (head == null) {
+                if (oldTable.compareAndSet(index, null, r.forward)) {
+                    return;
+                }
+                continue;
+            }
+
+            synchronized (head) {
+                if (oldTable.get(index) != head) {
+                    continue;
+                }
+
+                // Copy the chain so lock-free readers can keep walking the old one
+                Node<K, V> low = null;
+                Node<K, V> high = null;
+                for (Node<K, V> entry = head; entry != null; entry = entry.next) {
+                    if ((entry.hash & n) == 0) {
+                        low = new Node<>(entry.hash, entry.key, entry.value, low);
+                    } else {
+                        high = new Node<>(entry.hash, entry.key, entry.value, high);
+                    }
+                }
+                r.newTable.set(index, low);
+                r.newTable.set(index + n, high);
+                oldTable.set(index, r.forward);
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Multi-threaded throughput benchmark for ConcurrentHashMap.
+ * Runs a read-mostly mix (90% get, 8% put, 2% remove) at increasing thread
+ * counts and compares it with HashMap behind a single lock.
+ */
+public class ConcurrentHashMapBenchmark {
+    private static final int KEY_RANGE = 1 << 20;
+    private static final long DURATION_MS = 2_000;
+
+    // Common operations both contenders support
+    private interface Target {
+        Integer get(Integer key);
+        void put(Integer key, Integer value);
+        void remove(Integer key);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int maxThreads = args.length > 0
+                ? Integer.parseInt(args[0])
+                : Runtime.getRuntime().availableProcessors();
+
+        System.out.printf("%-8s %20s %20s%n", "threads", "ConcurrentHashMap", "synchronized HashMap");
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            double concurrent = run(concurrentTarget(), threads);
+            double locked = run(lockedTarget(), threads);
+            System.out.printf("%-8d %15.2f Mops %15.2f Mops%n", threads, concurrent, locked);
+        }
+    }
+
+    private static Target concurrentTarget() {
+        ConcurrentHashMap<Integer, Integer> map = new ConcurrentHashMap<>();
+        for (int i = 0; i < KEY_RANGE; i += 2) {
+            map.put(i, i);
+        }
+        return new Target() {
+            public Integer get(Integer key) { return map.get(key); }
+            public void put(Integer key, Integer value) { map.put(key, value); }
+            public void remove(Integer key) { map.remove(key); }
+        };
+    }
+
+    private static Target lockedTarget() {
+        HashMap<Integer, Integer> map = new HashMap<>();
+        for (int i = 0; i < KEY_RANGE; i += 2) {
+            map.put(i, i);
+        }
+        return new Target() {
+            public synchronized Integer get(Integer key) { return map.get(key); }
+            public synchronized void put(Integer key, Integer value) { map.put(key, value); }
+            public synchronized void remove(Integer key) { map.remove(key); }
+        };
+    }
+
+    // Run the operation mix on the given number of threads; returns millions of ops per second
+    private static double run(Target target, int threads) throws InterruptedException {
+        LongAdder operations = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        long[] deadline = new long[1];
+
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long count = 0;
+                try {
+                    start.await();
+                    while (System.nanoTime() < deadline[0]) {
+                        for (int i = 0; i < 1_000; i++) {
+                            Integer key = random.nextInt(KEY_RANGE);
+                            int op = random.nextInt(100);
+                            if (op < 90) {
+                                target.get(key);
+                            } else if (op < 98) {
+                                target.put(key, key);
+                            } else {
+                                target.remove(key);
+                            }
+                        }
+                        count += 1_000;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    operations.add(count);
+                    done.countDown();
+                }
+            });
+            worker.start();
+        }
+
+        deadline[0] = System.nanoTime() + DURATION_MS * 1_000_000;
+        start.countDown();
+        done.await();
+
+        return operations.sum() / (DURATION_MS / 1000.0) / 1_000_000.0;
+    }
+}
@@ -0,0 +1,260 @@
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrent, relaxed priority queue (MultiQueue) for shared work schedulers.
+ * Elements are spread over several PriorityQueue shards, each behind its own lock.
+ * add() inserts into a random shard it can lock without waiting; poll() looks at the
+ * cached roots of two random shards and removes the better one. Threads rarely meet
+ * on the same lock, so throughput scales with cores.
+ *
+ * The price is rank error: poll() returns an element close to the best, not always
+ * the best. The error grows with the shard count, so the count is configurable;
+ * a single shard gives an exact queue (one locked heap).
+ */
+public class ConcurrentPriorityQueue<T extends Comparable<T>> {
+    private static final int SHARDS_PER_THREAD = 2;
+    private static final int RANDOM_ATTEMPTS = 8;
+
+    // One heap and its lock; top caches the root so pollers can compare shards without locking
+    private static final class Shard<T extends Comparable<T>> {
+        final ReentrantLock lock = new ReentrantLock();
+        final PriorityQueue<T> heap;
+        volatile T top;
+
+        Shard(Comparator<T> comparator) {
+            this.heap = new PriorityQueue<>(comparator);
+        }
+
+        // Refresh the cached root; caller holds the lock
+        void updateTop() {
+            top = heap.isEmpty() ? null : heap.peek();
+        }
+    }
+
+    private final Shard<T>[] shards;
+    private final Comparator<T> comparator;
+    // Elements added and not yet claimed by a poll
+    private final AtomicInteger size;
+    private final AtomicInteger waiters;
+    private final ReentrantLock waitLock;
+    private final Condition notEmpty;
+
+    /**
+     * Default constructor - creates a min heap with two shards per available processor
+     */
+    public ConcurrentPriorityQueue() {
+        this(Comparator.naturalOrder());
+    }
+
+    /**
+     * Constructor with custom comparator and two shards per available processor
+     * @param comparator the comparator to determine ordering
+     */
+    public ConcurrentPriorityQueue(Comparator<T> comparator) {
+        this(comparator, SHARDS_PER_THREAD * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor with custom comparator and shard count
+     * @param comparator the comparator to determine ordering
+     * @param shards number of internal heaps; more shards scale better but raise the rank error
+     */
+    @SuppressWarnings("unchecked")
+    public ConcurrentPriorityQueue(Comparator<T> comparator, int shards) {
+        if (shards <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive: " + shards);
+        }
+        this.comparator = comparator;
+        this.shards = (Shard<T>[]) new Shard<?>[shards];
+        for (int i = 0; i < shards; i++) {
+            this.shards[i] = new Shard<>(comparator);
+        }
+        this.size = new AtomicInteger();
+        this.waiters = new AtomicInteger();
+        this.waitLock = new ReentrantLock();
+        this.notEmpty = waitLock.newCondition();
+    }
+
+    /**
+     * Get the number of elements in the queue (a snapshot while other threads are active)
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Check if the queue is empty
+     */
+    public boolean isEmpty() {
+        return size.get() == 0;
+    }
+
+    /**
+     * Insert an element into the priority queue
+     * @param element the element to insert
+     */
+    public void add(T element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Element cannot be null");
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Shard<T> shard = shards[random.nextInt(shards.length)];
+        // Skip shards another thread holds; after a few misses, wait on one
+        for (int attempt = 0; !shard.lock.tryLock(); attempt++) {
+            shard = shards[random.nextInt(shards.length)];
+            if (attempt == RANDOM_ATTEMPTS) {
+                shard.lock.lock();
+                break;
+            }
+        }
+        try {
+            shard.heap.add(element);
+            shard.updateTop();
+        } finally {
+            shard.lock.unlock();
+        }
+
+        // Publish only after the element is in a shard, so a poll that claims it will find it
+        size.incrementAndGet();
+        if (waiters.get() > 0) {
+            waitLock.lock();
+            try {
+                notEmpty.signal();
+            } finally {
+                waitLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Add an element to the priority queue (alias for add)
+     * @param element the element to insert
+     */
+    public void offer(T element) {
+        add(element);
+    }
+
+    /**
+     * Remove and return an element close to the root
+     * @return the removed element, or null if the queue is empty
+     */
+    public T poll() {
+        // Claim one element first; the claim guarantees one is left for this thread
+        int current;
+        do {
+            current = size.get();
+            if (current == 0) {
+                return null;
+            }
+        } while (!size.compareAndSet(current, current - 1));
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            for (int attempt = 0; attempt < RANDOM_ATTEMPTS; attempt++) {
+                Shard<T> first = shards[random.nextInt(shards.length)];
+                Shard<T> second = shards[random.nextInt(shards.length)];
+                Shard<T> shard = better(first, first.top, second, second.top);
+                if (shard != null && shard.lock.tryLock()) {
+                    T element = pollLocked(shard);
+                    if (element != null) {
+                        return element;
+                    }
+                }
+            }
+
+            // Sparse queue or heavy contention: take the best shard found by a full scan
+            Shard<T> best = null;
+            T bestTop = null;
+            for (Shard<T> shard : shards) {
+                T top = shard.top;
+                if (better(best, bestTop, shard, top) == shard) {
+                    best = shard;
+                    bestTop = top;
+                }
+            }
+            if (best != null) {
+                best.lock.lock();
+                T element = pollLocked(best);
+                if (element != null) {
+                    return element;
+                }
+            }
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Remove and return an element close to the root, waiting until one is available
+     * @return the removed element
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public T take() throws InterruptedException {
+        while (true) {
+            T element = poll();
+            if (element != null) {
+                return element;
+            }
+
+            waitLock.lockInterruptibly();
+            waiters.incrementAndGet();
+            try {
+                // add() bumps size before reading waiters, so this check cannot miss a signal
+                while (size.get() == 0) {
+                    notEmpty.await();
+                }
+            } finally {
+                waiters.decrementAndGet();
+                waitLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Peek at the best root across all shards without removing it
+     * @return an element close to the root, or null if the queue is empty
+     */
+    public T peek() {
+        T best = null;
+        for (Shard<T> shard : shards) {
+            T top = shard.top;
+            if (top != null && (best == null || comparator.compare(top, best) < 0)) {
+                best = top;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Poll the shard and release its lock; returns null if it was emptied meanwhile
+     */
+    private T pollLocked(Shard<T> shard) {
+        try {
+            if (shard.heap.isEmpty()) {
+                return null;
+            }
+            T element = shard.heap.poll();
+            shard.updateTop();
+            return element;
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    /**
+     * Pick the shard with the better cached root, ignoring empty shards
+     */
+    private Shard<T> better(Shard<T> a, T aTop, Shard<T> b, T bTop) {
+        if (aTop == null) {
+            return bTop == null ? null : b;
+        }
+        if (bTop == null) {
+            return a;
+        }
+        return comparator.compare(bTop, aTop) < 0 ? b : a;
+    }
+}
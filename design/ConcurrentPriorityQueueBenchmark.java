@@ -0,0 +1,130 @@
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Benchmark for ConcurrentPriorityQueue against a PriorityQueue behind a single
+ * synchronized lock. Every thread alternates add and poll on a prefilled queue.
+ * Also reports the mean rank error of poll() for each shard count.
+ */
+public class ConcurrentPriorityQueueBenchmark {
+    private static final int PREFILL = 1 << 16;
+    private static final int OPS_PER_THREAD = 2_000_000;
+
+    // Operations the benchmark needs from every contender
+    private interface SharedQueue {
+        void add(Integer element);
+        Integer poll();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int maxThreads = args.length > 0
+                ? Integer.parseInt(args[0])
+                : Runtime.getRuntime().availableProcessors();
+
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            System.out.println(threads + " thread(s), alternating add/poll");
+            print("synchronized PriorityQueue", run(synchronizedHeap(), threads));
+            print("ConcurrentPQ 1 shard", run(concurrent(1), threads));
+            print("ConcurrentPQ 2/thread", run(concurrent(2 * threads), threads));
+            print("ConcurrentPQ 4/thread", run(concurrent(4 * threads), threads));
+            System.out.println();
+        }
+
+        System.out.println("Mean rank error of poll() over " + PREFILL + " elements");
+        for (int shards = 1; shards <= 64; shards *= 4) {
+            System.out.printf("  %-28s %8.2f%n", shards + " shard(s)", rankError(shards));
+        }
+    }
+
+    private static void print(String label, double mops) {
+        System.out.printf("  %-28s %8.2f Mops/s%n", label, mops);
+    }
+
+    private static SharedQueue synchronizedHeap() {
+        PriorityQueue<Integer> heap = new PriorityQueue<>();
+        return new SharedQueue() {
+            public synchronized void add(Integer element) { heap.add(element); }
+            public synchronized Integer poll() { return heap.isEmpty() ? null : heap.poll(); }
+        };
+    }
+
+    private static SharedQueue concurrent(int shards) {
+        ConcurrentPriorityQueue<Integer> queue = new ConcurrentPriorityQueue<>(Comparator.<Integer>naturalOrder(), shards);
+        return new SharedQueue() {
+            public void add(Integer element) { queue.add(element); }
+            public Integer poll() { return queue.poll(); }
+        };
+    }
+
+    // Run OPS_PER_THREAD operations on every thread; returns millions of operations per second
+    private static double run(SharedQueue queue, int threads) throws InterruptedException {
+        Random random = new Random(7);
+        for (int i = 0; i < PREFILL; i++) {
+            queue.add(random.nextInt());
+        }
+
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom local = ThreadLocalRandom.current();
+                for (int i = 0; i < OPS_PER_THREAD; i += 2) {
+                    queue.add(local.nextInt());
+                    queue.poll();
+                }
+            });
+        }
+
+        long start = System.nanoTime();
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        return (double) threads * OPS_PER_THREAD / (elapsed / 1e9) / 1e6;
+    }
+
+    // Fill with 0..n-1 and drain; rank error of a poll is how many smaller elements were still queued
+    private static double rankError(int shards) {
+        ConcurrentPriorityQueue<Integer> queue = new ConcurrentPriorityQueue<>(Comparator.<Integer>naturalOrder(), shards);
+        int[] order = new int[PREFILL];
+        for (int i = 0; i < PREFILL; i++) {
+            order[i] = i;
+        }
+        Random random = new Random(11);
+        for (int i = PREFILL - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int temp = order[i];
+            order[i] = order[j];
+            order[j] = temp;
+        }
+        for (int value : order) {
+            queue.add(value);
+        }
+
+        // Fenwick tree counting the values still in the queue
+        int[] tree = new int[PREFILL + 1];
+        for (int i = 1; i <= PREFILL; i++) {
+            tree[i] += 1;
+            int parent = i + (i & -i);
+            if (parent <= PREFILL) {
+                tree[parent] += tree[i];
+            }
+        }
+
+        long totalError = 0;
+        Integer value;
+        while ((value = queue.poll()) != null) {
+            for (int i = value; i > 0; i -= i & -i) {
+                totalError += tree[i];
+            }
+            for (int i = value + 1; i <= PREFILL; i += i & -i) {
+                tree[i]--;
+            }
+        }
+        return (double) totalError / PREFILL;
+    }
+}
@@ -0,0 +1,146 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Throughput benchmark for SpscQueue, MpscQueue and MpmcQueue at increasing
+ * producer/consumer counts, with an ArrayQueue behind a ReentrantLock as baseline.
+ * Producers offer (yielding while full) and consumers drain in batches.
+ */
+public class ConcurrentQueueBenchmark {
+    private static final int CAPACITY = 1 << 14;
+    private static final int ITEMS_PER_PRODUCER = 5_000_000;
+    private static final int DRAIN_BATCH = 256;
+    private static final Integer ITEM = 42;
+
+    // Operations the benchmark needs from every contender
+    private interface BoundedQueue {
+        boolean offer(Integer element);
+        int drain(Consumer<Integer> consumer, int limit);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int maxThreads = args.length > 0
+                ? Integer.parseInt(args[0])
+                : Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+
+        System.out.println("SPSC, 1 producer / 1 consumer");
+        print("SpscQueue", run(spsc(), 1, 1));
+        print("locked ArrayQueue", run(locked(), 1, 1));
+
+        for (int producers = 1; producers <= maxThreads; producers *= 2) {
+            System.out.println("\n" + producers + " producer(s) / 1 consumer");
+            print("MpscQueue", run(mpsc(), producers, 1));
+            print("MpmcQueue", run(mpmc(), producers, 1));
+            print("locked ArrayQueue", run(locked(), producers, 1));
+        }
+
+        for (int threads = 2; threads <= maxThreads; threads *= 2) {
+            System.out.println("\n" + threads + " producers / " + threads + " consumers");
+            print("MpmcQueue", run(mpmc(), threads, threads));
+            print("locked ArrayQueue", run(locked(), threads, threads));
+        }
+    }
+
+    private static void print(String label, double mops) {
+        System.out.printf("  %-20s %8.2f Mops/s%n", label, mops);
+    }
+
+    private static BoundedQueue spsc() {
+        SpscQueue<Integer> queue = new SpscQueue<>(CAPACITY);
+        return new BoundedQueue() {
+            public boolean offer(Integer element) { return queue.offer(element); }
+            public int drain(Consumer<Integer> consumer, int limit) { return queue.drain(consumer, limit); }
+        };
+    }
+
+    private static BoundedQueue mpsc() {
+        MpscQueue<Integer> queue = new MpscQueue<>(CAPACITY);
+        return new BoundedQueue() {
+            public boolean offer(Integer element) { return queue.offer(element); }
+            public int drain(Consumer<Integer> consumer, int limit) { return queue.drain(consumer, limit); }
+        };
+    }
+
+    private static BoundedQueue mpmc() {
+        MpmcQueue<Integer> queue = new MpmcQueue<>(CAPACITY);
+        return new BoundedQueue() {
+            public boolean offer(Integer element) { return queue.offer(element); }
+            public int drain(Consumer<Integer> consumer, int limit) { return queue.drain(consumer, limit); }
+        };
+    }
+
+    private static BoundedQueue locked() {
+        ArrayQueue<Integer> queue = new ArrayQueue<>(CAPACITY);
+        ReentrantLock lock = new ReentrantLock();
+        return new BoundedQueue() {
+            public boolean offer(Integer element) {
+                lock.lock();
+                try {
+                    if (queue.size() >= CAPACITY) {
+                        return false;
+                    }
+                    queue.enqueue(element);
+                    return true;
+                } finally {
+                    lock.unlock();
+                }
+            }
+
+            public int drain(Consumer<Integer> consumer, int limit) {
+                lock.lock();
+                try {
+                    int count = 0;
+                    while (count < limit && !queue.isEmpty()) {
+                        consumer.accept(queue.dequeue());
+                        count++;
+                    }
+                    return count;
+                } finally {
+                    lock.unlock();
+                }
+            }
+        };
+    }
+
+    // Move ITEMS_PER_PRODUCER items from every producer to the consumers; returns millions of items per second
+    private static double run(BoundedQueue queue, int producers, int consumers) throws InterruptedException {
+        long total = (long) producers * ITEMS_PER_PRODUCER;
+        AtomicLong consumed = new AtomicLong();
+        Thread[] threads = new Thread[producers + consumers];
+
+        for (int p = 0; p < producers; p++) {
+            threads[p] = new Thread(() -> {
+                for (int i = 0; i < ITEMS_PER_PRODUCER; i++) {
+                    while (!queue.offer(ITEM)) {
+                        Thread.yield();
+                    }
+                }
+            });
+        }
+        for (int c = 0; c < consumers; c++) {
+            threads[producers + c] = new Thread(() -> {
+                Consumer<Integer> sink = element -> { };
+                while (consumed.get() < total) {
+                    int drained = queue.drain(sink, DRAIN_BATCH);
+                    if (drained == 0) {
+                        Thread.yield();
+                    } else {
+                        consumed.addAndGet(drained);
+                    }
+                }
+            });
+        }
+
+        long start = System.nanoTime();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        return total / (elapsed / 1e9) / 1e6;
+    }
+}
@@ -0,0 +1,293 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free sorted set (skip list) for ordered indexes shared between threads.
+ * Same operations as BinarySearchTree, but no locks: insert and delete link and
+ * unlink nodes with CAS, and search is wait-free (it never writes or retries).
+ *
+ * delete() first marks a node's next pointers by wrapping them in an immutable
+ * Marked holder (logical delete), and any thread that later walks past a marked
+ * node unlinks it (physical delete). A CAS that expects a plain node fails on a
+ * marked link, so nothing can be linked behind a node being deleted.
+ * Iteration is weakly consistent: it never throws and sees every element present
+ * for the whole scan, but may or may not see concurrent inserts and deletes.
+ */
+public class ConcurrentSkipList<T extends Comparable<T>> implements Iterable<T> {
+    private static final int MAX_LEVEL = 32;
+
+    private static final class Node<T> {
+        final T data;
+        // Each slot holds the successor Node, a Marked wrapper once deleted, or null at the end
+        final AtomicReferenceArray<Object> next;
+        final int topLevel;
+
+        Node(T data, int topLevel) {
+            this.data = data;
+            this.topLevel = topLevel;
+            this.next = new AtomicReferenceArray<>(topLevel + 1);
+        }
+    }
+
+    // Link of a logically deleted node; successor stays readable for traversals
+    private static final class Marked<T> {
+        final Node<T> node;
+
+        Marked(Node<T> node) {
+            this.node = node;
+        }
+    }
+
+    // Sentinel before the first element on every level
+    private final Node<T> head;
+    private final LongAdder size;
+
+    // Constructor
+    public ConcurrentSkipList() {
+        this.head = new Node<>(null, MAX_LEVEL - 1);
+        this.size = new LongAdder();
+    }
+
+    // Get size (a snapshot while other threads are active)
+    public int size() {
+        return (int) Math.min(Integer.MAX_VALUE, size.sum());
+    }
+
+    // Check if empty
+    public boolean isEmpty() {
+        return first(null) == null;
+    }
+
+    /**
+     * Insert a value
+     * @return true if added, false if already present
+     */
+    public boolean insert(T data) {
+        checkNotNull(data);
+        int topLevel = randomLevel();
+        @SuppressWarnings("unchecked")
+        Node<T>[] preds = (Node<T>[]) new Node<?>[MAX_LEVEL];
+        @SuppressWarnings("unchecked")
+        Node<T>[] succs = (Node<T>[]) new Node<?>[MAX_LEVEL];
+
+        while (true) {
+            if (find(data, preds, succs)) {
+                return false;
+            }
+
+            Node<T> node = new Node<>(data, topLevel);
+            for (int level = 0; level <= topLevel; level++) {
+                node.next.set(level, succs[level]);
+            }
+            // Linking the bottom level makes the value present
+            if (!preds[0].next.compareAndSet(0, succs[0], node)) {
+                continue;
+            }
+            size.increment();
+
+            // Upper levels only speed up searches; retry each until linked or the node is deleted
+            for (int level = 1; level <= topLevel; level++) {
+                while (true) {
+                    Node<T> pred = preds[level];
+                    Node<T> succ = succs[level];
+                    Object link = node.next.get(level);
+                    if (link instanceof Marked) {
+                        return true; // Being deleted: stop linking
+                    }
+                    if (link != succ && !node.next.compareAndSet(level, link, succ)) {
+                        return true;
+                    }
+                    if (pred.next.compareAndSet(level, succ, node)) {
+                        break;
+                    }
+                    find(data, preds, succs);
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Delete a value
+     * @return true if this call removed it, false if it was not present
+     */
+    public boolean delete(T data) {
+        checkNotNull(data);
+        @SuppressWarnings("unchecked")
+        Node<T>[] preds = (Node<T>[]) new Node<?>[MAX_LEVEL];
+        @SuppressWarnings("unchecked")
+        Node<T>[] succs = (Node<T>[]) new Node<?>[MAX_LEVEL];
+
+        if (!find(data, preds, succs)) {
+            return false;
+        }
+        Node<T> node = succs[0];
+
+        // Mark upper levels top-down so no new links are built on them
+        for (int level = node.topLevel; level > 0; level--) {
+            Object link = node.next.get(level);
+            while (!(link instanceof Marked)) {
+                node.next.compareAndSet(level, link, new Marked<>(nodeOf(link)));
+                link = node.next.get(level);
+            }
+        }
+
+        // Marking the bottom level is the delete itself; exactly one thread wins it
+        while (true) {
+            Object link = node.next.get(0);
+            if (link instanceof Marked) {
+                return false; // Another thread deleted it first
+            }
+            if (node.next.compareAndSet(0, link, new Marked<>(nodeOf(link)))) {
+                size.decrement();
+                find(data, preds, succs); // Unlink it
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Search for a value without locking or writing
+     */
+    public boolean search(T data) {
+        checkNotNull(data);
+        Node<T> node = first(data);
+        return node != null && node.data.compareTo(data) == 0;
+    }
+
+    // Iterate all values in ascending order (weakly consistent)
+    @Override
+    public Iterator<T> iterator() {
+        return range(null, null).iterator();
+    }
+
+    /**
+     * Lazily iterate the values in [lo, hi) in ascending order; a null bound is unbounded.
+     * Weakly consistent: concurrent updates never cause an exception and may or may not be seen.
+     */
+    public Iterable<T> range(T lo, T hi) {
+        return () -> new RangeIterator(first(lo), hi);
+    }
+
+    private class RangeIterator implements Iterator<T> {
+        private Node<T> next;
+        private final T hi;
+
+        RangeIterator(Node<T> start, T hi) {
+            this.hi = hi;
+            this.next = inRange(start);
+        }
+
+        private Node<T> inRange(Node<T> node) {
+            return node != null && (hi == null || node.data.compareTo(hi) < 0) ? node : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public T next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            T data = next.data;
+            next = inRange(nextLive(nodeOf(next.next.get(0))));
+            return data;
+        }
+    }
+
+    // Successor node of a link, whether or not it is marked
+    @SuppressWarnings("unchecked")
+    private static <T> Node<T> nodeOf(Object link) {
+        return link instanceof Marked ? ((Marked<T>) link).node : (Node<T>) link;
+    }
+
+    // First unmarked node at or after node on the bottom level
+    private Node<T> nextLive(Node<T> node) {
+        while (node != null) {
+            Object link = node.next.get(0);
+            if (!(link instanceof Marked)) {
+                return node;
+            }
+            node = nodeOf(link);
+        }
+        return null;
+    }
+
+    // First live node with value >= data (or the first node if data is null), read-only
+    private Node<T> first(T data) {
+        Node<T> pred = head;
+        if (data != null) {
+            for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+                Node<T> current = nodeOf(pred.next.get(level));
+                while (current != null) {
+                    Object link = current.next.get(level);
+                    if (link instanceof Marked) {
+                        current = nodeOf(link); // Skip deleted nodes without unlinking them
+                    } else if (current.data.compareTo(data) < 0) {
+                        pred = current;
+                        current = nodeOf(link);
+                    } else {
+                        break;
+                    }
+                }
+            }
+        }
+        return nextLive(nodeOf(pred.next.get(0)));
+    }
+
+    /**
+     * Fill preds/succs with the nodes around data on every level, unlinking
+     * marked nodes on the way. Returns true if data is present.
+     */
+    private boolean find(T data, Node<T>[] preds, Node<T>[] succs) {
+        retry:
+        while (true) {
+            Node<T> pred = head;
+            Node<T> current = null;
+            for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+                Object predLink = pred.next.get(level);
+                if (predLink instanceof Marked) {
+                    continue retry; // pred was deleted since we stepped onto it
+                }
+                current = nodeOf(predLink);
+                while (current != null) {
+                    Object link = current.next.get(level);
+                    if (link instanceof Marked) {
+                        // Unlink the deleted node; restart if pred changed under us
+                        Node<T> succ = nodeOf(link);
+                        if (!pred.next.compareAndSet(level, current, succ)) {
+                            continue retry;
+                        }
+                        current = succ;
+                    } else if (current.data.compareTo(data) < 0) {
+                        pred = current;
+                        current = nodeOf(link);
+                    } else {
+                        break;
+                    }
+                }
+                preds[level] = pred;
+                succs[level] = current;
+            }
+            return current != null && current.data.compareTo(data) == 0;
+        }
+    }
+
+    // Geometric level: each extra level with probability 1/2
+    private static int randomLevel() {
+        int bits = ThreadLocalRandom.current().nextInt() | (1 << (MAX_LEVEL - 1));
+        return Integer.numberOfTrailingZeros(bits);
+    }
+
+    private static void checkNotNull(Object data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Value cannot be null");
+        }
+    }
+}
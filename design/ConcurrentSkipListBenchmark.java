@@ -0,0 +1,107 @@
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Scaling benchmark for ConcurrentSkipList from 1 to N threads, against a
+ * red-black BinarySearchTree behind one synchronized lock. Every thread runs a
+ * mix of 80% search, 10% insert and 10% delete over a shared key range.
+ */
+public class ConcurrentSkipListBenchmark {
+    private static final int KEY_RANGE = 1 << 20;
+    private static final int OPS_PER_THREAD = 2_000_000;
+    private static final int SEARCH_PERCENT = 80;
+
+    // Operations the benchmark needs from every contender
+    private interface SortedSet {
+        boolean insert(Integer value);
+        boolean delete(Integer value);
+        boolean search(Integer value);
+    }
+
+    private static volatile boolean sink;
+
+    public static void main(String[] args) throws InterruptedException {
+        int maxThreads = args.length > 0
+                ? Integer.parseInt(args[0])
+                : Runtime.getRuntime().availableProcessors();
+
+        // Doubling thread counts, always ending with a run at maxThreads
+        for (int threads = 1; threads <= maxThreads;
+                threads = threads == maxThreads ? maxThreads + 1 : Math.min(threads * 2, maxThreads)) {
+            System.out.println(threads + " thread(s), " + SEARCH_PERCENT + "% search");
+            print("locked BinarySearchTree", run(locked(), threads));
+            print("ConcurrentSkipList", run(skipList(), threads));
+        }
+    }
+
+    private static void print(String label, double mops) {
+        System.out.printf("  %-26s %8.2f Mops/s%n", label, mops);
+    }
+
+    private static SortedSet locked() {
+        BinarySearchTree<Integer> tree = new BinarySearchTree<>(BinarySearchTree.Balance.RED_BLACK);
+        return new SortedSet() {
+            public synchronized boolean insert(Integer value) {
+                boolean absent = !tree.search(value);
+                tree.insert(value);
+                return absent;
+            }
+
+            public synchronized boolean delete(Integer value) {
+                boolean present = tree.search(value);
+                tree.delete(value);
+                return present;
+            }
+
+            public synchronized boolean search(Integer value) {
+                return tree.search(value);
+            }
+        };
+    }
+
+    private static SortedSet skipList() {
+        ConcurrentSkipList<Integer> list = new ConcurrentSkipList<>();
+        return new SortedSet() {
+            public boolean insert(Integer value) { return list.insert(value); }
+            public boolean delete(Integer value) { return list.delete(value); }
+            public boolean search(Integer value) { return list.search(value); }
+        };
+    }
+
+    // Prefill half the key range, then run the mix on every thread; returns millions of operations per second
+    private static double run(SortedSet set, int threads) throws InterruptedException {
+        for (int key = 0; key < KEY_RANGE; key += 2) {
+            set.insert(key);
+        }
+
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                boolean found = false;
+                for (int i = 0; i < OPS_PER_THREAD; i++) {
+                    Integer key = random.nextInt(KEY_RANGE);
+                    int op = random.nextInt(100);
+                    if (op < SEARCH_PERCENT) {
+                        found ^= set.search(key);
+                    } else if (op < SEARCH_PERCENT + (100 - SEARCH_PERCENT) / 2) {
+                        set.insert(key);
+                    } else {
+                        set.delete(key);
+                    }
+                }
+                sink = found;
+            });
+        }
+
+        long start = System.nanoTime();
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        return (double) threads * OPS_PER_THREAD / (elapsed / 1e9) / 1e6;
+    }
+}
@@ -0,0 +1,407 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable graph in compressed sparse row (CSR) form.
+ * Vertices are mapped to dense int IDs 0..vertexCount-1, and the out-edges of
+ * vertex v are targets[offsets[v] .. offsets[v + 1]), with an optional weights
+ * array in the same order. There are no per-edge objects and no boxed
+ * neighbors: a traversal reads two int[] arrays front to back.
+ *
+ * Build one from an existing Graph with from(), or stream edges into a Builder.
+ * Algorithms work on IDs; idOf() and vertex() translate at the edges.
+ */
+public class CsrGraph<T> {
+    // ID -> vertex, or null when the vertices are the IDs themselves (ofEdges)
+    private final Object[] vertices;
+    private final HashMap<T, Integer> ids;
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+    private final boolean isDirected;
+
+    private CsrGraph(Object[] vertices, HashMap<T, Integer> ids, int[] offsets, int[] targets,
+                     double[] weights, boolean isDirected) {
+        this.vertices = vertices;
+        this.ids = ids;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.isDirected = isDirected;
+    }
+
+    // Snapshot of a Graph with its weights; neighbor order is kept, IDs follow the vertex iteration order
+    public static <T> CsrGraph<T> from(Graph<T> graph) {
+        HashMap<T, Integer> ids = new HashMap<>();
+        Object[] vertices = graph.getVertices().toArray();
+        int[] offsets = new int[vertices.length + 1];
+        for (int id = 0; id < vertices.length; id++) {
+            @SuppressWarnings("unchecked")
+            T vertex = (T) vertices[id];
+            ids.put(vertex, id);
+            offsets[id + 1] = offsets[id] + graph.getAdjacentVertices(vertex).size();
+        }
+
+        int[] targets = new int[offsets[vertices.length]];
+        double[] weights = new double[targets.length];
+        boolean isWeighted = false;
+        for (int id = 0; id < vertices.length; id++) {
+            @SuppressWarnings("unchecked")
+            T vertex = (T) vertices[id];
+            int edge = offsets[id];
+            for (T neighbor : graph.getAdjacentVertices(vertex)) {
+                targets[edge++] = ids.get(neighbor);
+            }
+            edge = offsets[id];
+            for (double weight : graph.getEdgeWeights(vertex)) {
+                weights[edge++] = weight;
+                isWeighted |= weight != 1.0;
+            }
+        }
+        // Keep the weights only if some edge is not weight 1
+        return new CsrGraph<>(vertices, ids, offsets, targets, isWeighted ? weights : null, graph.isDirected());
+    }
+
+    /**
+     * Graph whose vertices are the ints 0..vertexCount-1, from parallel edge arrays.
+     * No vertex map is kept, so this is the cheapest form for large generated graphs.
+     * weights may be null; for an undirected graph each edge is stored in both directions.
+     */
+    public static CsrGraph<Integer> ofEdges(int vertexCount, int[] sources, int[] targets, double[] weights,
+                                            boolean isDirected) {
+        if (vertexCount < 0) {
+            throw new IllegalArgumentException("Vertex count cannot be negative: " + vertexCount);
+        }
+        if (sources.length != targets.length || (weights != null && weights.length != sources.length)) {
+            throw new IllegalArgumentException("Edge arrays must have the same length");
+        }
+        for (int i = 0; i < sources.length; i++) {
+            checkId(sources[i], vertexCount);
+            checkId(targets[i], vertexCount);
+        }
+        return compress(null, null, vertexCount, sources, targets, weights, sources.length, isDirected);
+    }
+
+    // Start streaming edges into a new graph
+    public static <T> Builder<T> builder(boolean isDirected) {
+        return new Builder<>(isDirected);
+    }
+
+    /**
+     * Collects vertices and edges, then compresses them into a CsrGraph.
+     * Edges are buffered in primitive arrays, so memory stays O(V + E) ints.
+     * Not thread-safe, and unusable after build().
+     */
+    public static final class Builder<T> {
+        private final boolean isDirected;
+        private HashMap<T, Integer> ids = new HashMap<>();
+        private final ArrayList<T> vertices = new ArrayList<>();
+        private final IntArrayList sources = new IntArrayList();
+        private final IntArrayList targets = new IntArrayList();
+        // Created on the first weighted edge; earlier edges get weight 1
+        private DoubleArrayList weights;
+
+        private Builder(boolean isDirected) {
+            this.isDirected = isDirected;
+        }
+
+        // Add a vertex (vertices without edges are kept too)
+        public Builder<T> addVertex(T vertex) {
+            idOf(vertex);
+            return this;
+        }
+
+        // Add an edge with weight 1
+        public Builder<T> addEdge(T source, T destination) {
+            int from = idOf(source);
+            int to = idOf(destination);
+            sources.add(from);
+            targets.add(to);
+            if (weights != null) {
+                weights.add(1.0);
+            }
+            return this;
+        }
+
+        // Add a weighted edge
+        public Builder<T> addEdge(T source, T destination, double weight) {
+            if (weights == null) {
+                weights = new DoubleArrayList(Math.max(10, targets.size() + 1));
+                for (int i = 0; i < targets.size(); i++) {
+                    weights.add(1.0);
+                }
+            }
+            int from = idOf(source);
+            int to = idOf(destination);
+            sources.add(from);
+            targets.add(to);
+            weights.add(weight);
+            return this;
+        }
+
+        // Build the graph; IDs are assigned in order of first appearance
+        public CsrGraph<T> build() {
+            checkNotBuilt();
+            HashMap<T, Integer> builtIds = ids;
+            ids = null;
+            return compress(vertices.toArray(), builtIds, vertices.size(), sources.toArray(), targets.toArray(),
+                    weights == null ? null : weights.toArray(), sources.size(), isDirected);
+        }
+
+        private int idOf(T vertex) {
+            checkNotBuilt();
+            if (vertex == null) {
+                throw new IllegalArgumentException("Vertex cannot be null");
+            }
+            Integer id = ids.get(vertex);
+            if (id == null) {
+                id = vertices.size();
+                ids.put(vertex, id);
+                vertices.add(vertex);
+            }
+            return id;
+        }
+
+        private void checkNotBuilt() {
+            if (ids == null) {
+                throw new IllegalStateException("Builder already built");
+            }
+        }
+    }
+
+    // Counting sort of the edge list by source into offsets/targets/weights
+    private static <T> CsrGraph<T> compress(Object[] vertices, HashMap<T, Integer> ids, int vertexCount,
+                                            int[] sources, int[] targets, double[] weights, int edgeCount,
+                                            boolean isDirected) {
+        long arcs = isDirected ? edgeCount : 2L * edgeCount;
+        if (arcs > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many edges: " + arcs);
+        }
+        int[] offsets = new int[vertexCount + 1];
+        for (int i = 0; i < edgeCount; i++) {
+            offsets[sources[i] + 1]++;
+            if (!isDirected) {
+                offsets[targets[i] + 1]++;
+            }
+        }
+        for (int v = 0; v < vertexCount; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+
+        int[] csrTargets = new int[(int) arcs];
+        double[] csrWeights = weights == null ? null : new double[(int) arcs];
+        int[] next = new int[vertexCount];
+        System.arraycopy(offsets, 0, next, 0, vertexCount);
+        for (int i = 0; i < edgeCount; i++) {
+            int edge = next[sources[i]]++;
+            csrTargets[edge] = targets[i];
+            if (csrWeights != null) {
+                csrWeights[edge] = weights[i];
+            }
+            if (!isDirected) {
+                edge = next[targets[i]]++;
+                csrTargets[edge] = sources[i];
+                if (csrWeights != null) {
+                    csrWeights[edge] = weights[i];
+                }
+            }
+        }
+        return new CsrGraph<>(vertices, ids, offsets, csrTargets, csrWeights, isDirected);
+    }
+
+    // Number of vertices
+    public int vertexCount() {
+        return offsets.length - 1;
+    }
+
+    // Number of stored edges (an undirected edge counts once per direction)
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    public boolean isDirected() {
+        return isDirected;
+    }
+
+    public boolean isWeighted() {
+        return weights != null;
+    }
+
+    // Dense ID of a vertex, or -1 if it is not in the graph
+    public int idOf(T vertex) {
+        if (vertices == null) {
+            int id = vertex instanceof Integer ? (Integer) vertex : -1;
+            return id >= 0 && id < vertexCount() ? id : -1;
+        }
+        Integer id = ids.get(vertex);
+        return id == null ? -1 : id;
+    }
+
+    // Vertex with the given ID
+    @SuppressWarnings("unchecked")
+    public T vertex(int id) {
+        checkId(id, vertexCount());
+        return vertices == null ? (T) Integer.valueOf(id) : (T) vertices[id];
+    }
+
+    // Number of out-edges of a vertex
+    public int degree(int id) {
+        checkId(id, vertexCount());
+        return offsets[id + 1] - offsets[id];
+    }
+
+    // First edge index of a vertex; its edges are [edgeStart(id), edgeEnd(id))
+    public int edgeStart(int id) {
+        checkId(id, vertexCount());
+        return offsets[id];
+    }
+
+    public int edgeEnd(int id) {
+        checkId(id, vertexCount());
+        return offsets[id + 1];
+    }
+
+    // Target vertex of an edge index
+    public int target(int edge) {
+        return targets[edge];
+    }
+
+    // Weight of an edge index (1 for an unweighted graph)
+    public double weight(int edge) {
+        return weights == null ? 1.0 : weights[edge];
+    }
+
+    // Call action with the ID of every out-neighbor of a vertex
+    public void forEachNeighbor(int id, IntConsumer action) {
+        for (int edge = edgeStart(id), end = offsets[id + 1]; edge < end; edge++) {
+            action.accept(targets[edge]);
+        }
+    }
+
+    // Check if edge exists (linear in the source's degree)
+    public boolean hasEdge(int source, int destination) {
+        for (int edge = edgeStart(source), end = offsets[source + 1]; edge < end; edge++) {
+            if (targets[edge] == destination) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Graph with every edge reversed, sharing this graph's vertex IDs, so the
+     * out-edges of a vertex there are its in-edges here. An undirected graph is
+     * its own reverse.
+     */
+    public CsrGraph<T> reverse() {
+        if (!isDirected) {
+            return this;
+        }
+        int vertexCount = vertexCount();
+        int[] reverseOffsets = new int[vertexCount + 1];
+        for (int target : targets) {
+            reverseOffsets[target + 1]++;
+        }
+        for (int v = 0; v < vertexCount; v++) {
+            reverseOffsets[v + 1] += reverseOffsets[v];
+        }
+
+        int[] reverseTargets = new int[targets.length];
+        double[] reverseWeights = weights == null ? null : new double[weights.length];
+        int[] next = Arrays.copyOf(reverseOffsets, vertexCount);
+        for (int source = 0; source < vertexCount; source++) {
+            for (int edge = offsets[source], end = offsets[source + 1]; edge < end; edge++) {
+                int reverseEdge = next[targets[edge]]++;
+                reverseTargets[reverseEdge] = source;
+                if (reverseWeights != null) {
+                    reverseWeights[reverseEdge] = weights[edge];
+                }
+            }
+        }
+        return new CsrGraph<>(vertices, ids, reverseOffsets, reverseTargets, reverseWeights, true);
+    }
+
+    // Raw arrays for traversal engines in this package; shared, never modify them
+    int[] offsets() {
+        return offsets;
+    }
+
+    int[] targets() {
+        return targets;
+    }
+
+    double[] weights() {
+        return weights;
+    }
+
+    /**
+     * BFS from a vertex
+     * @return IDs in visit order
+     */
+    public int[] bfs(int start) {
+        checkId(start, vertexCount());
+        boolean[] visited = new boolean[vertexCount()];
+        // The queue is the visit order: head reads, tail appends
+        int[] queue = new int[vertexCount()];
+        int head = 0;
+        int tail = 0;
+        visited[start] = true;
+        queue[tail++] = start;
+        while (head < tail) {
+            int vertex = queue[head++];
+            for (int edge = offsets[vertex], end = offsets[vertex + 1]; edge < end; edge++) {
+                int neighbor = targets[edge];
+                if (!visited[neighbor]) {
+                    visited[neighbor] = true;
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+        return Arrays.copyOf(queue, tail);
+    }
+
+    /**
+     * DFS from a vertex, visiting neighbors in the same order as Graph.dfs but
+     * with an explicit stack, so long paths cannot overflow the call stack
+     * @return IDs in pre-order
+     */
+    public int[] dfs(int start) {
+        checkId(start, vertexCount());
+        boolean[] visited = new boolean[vertexCount()];
+        int[] order = new int[vertexCount()];
+        int count = 0;
+        // Stack of vertices and, for each, the next edge to scan
+        int[] stack = new int[vertexCount()];
+        int[] cursor = new int[vertexCount()];
+        int top = 0;
+        visited[start] = true;
+        order[count++] = start;
+        stack[top] = start;
+        cursor[top++] = offsets[start];
+        while (top > 0) {
+            int vertex = stack[top - 1];
+            int edge = cursor[top - 1];
+            if (edge == offsets[vertex + 1]) {
+                top--;
+                continue;
+            }
+            cursor[top - 1] = edge + 1;
+            int neighbor = targets[edge];
+            if (!visited[neighbor]) {
+                visited[neighbor] = true;
+                order[count++] = neighbor;
+                stack[top] = neighbor;
+                cursor[top++] = offsets[neighbor];
+            }
+        }
+        return Arrays.copyOf(order, count);
+    }
+
+    private static void checkId(int id, int vertexCount) {
+        if (id < 0 || id >= vertexCount) {
+            throw new IndexOutOfBoundsException("Vertex: " + id + ", Vertex count: " + vertexCount);
+        }
+    }
+}
@@ -0,0 +1,318 @@
+import java.util.Arrays;
+
+/**
+ * Reusable depth-first search engine over a CsrGraph.
+ * The search keeps its own stack of (vertex, next edge) in int arrays instead
+ * of recursing, so a million-vertex path cannot overflow the call stack, and it
+ * reports events to a Visitor instead of printing. Any callback can return
+ * false to stop the search early.
+ *
+ * All working arrays are allocated once per engine. Vertex marks are stamped
+ * with a search generation, so starting a new search is O(1) rather than
+ * clearing them. Stored edges are followed as directed arcs: in an undirected
+ * graph every tree edge is also seen back from the child as a back edge.
+ *
+ * Built on it: topological sort, cycle detection and strongly connected
+ * components (Tarjan and Kosaraju), all O(V + E).
+ */
+public class DepthFirstSearch {
+    /**
+     * Callbacks for DFS events; every method returns true to continue, false to stop.
+     * parent is -1 for the root of a search.
+     */
+    public interface Visitor {
+        // First time a vertex is reached
+        default boolean preVisit(int vertex, int parent) {
+            return true;
+        }
+
+        // All edges of a vertex are done
+        default boolean postVisit(int vertex, int parent) {
+            return true;
+        }
+
+        // Edge to a vertex still on the stack (an ancestor or the vertex itself): closes a cycle
+        default boolean backEdge(int vertex, int ancestor) {
+            return true;
+        }
+
+        // Edge to a vertex that is already finished (forward or cross edge)
+        default boolean finishedEdge(int vertex, int target) {
+            return true;
+        }
+    }
+
+    private final CsrGraph<?> graph;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] stack;
+    private final int[] cursor;
+    // mark[v] == 2 * generation while v is on the stack, 2 * generation + 1 once finished
+    private final int[] mark;
+    private int generation;
+    // Engine over the reverse graph, created on the first kosarajuComponents() call
+    private DepthFirstSearch reverse;
+
+    // Constructor
+    public DepthFirstSearch(CsrGraph<?> graph) {
+        int vertexCount = graph.vertexCount();
+        this.graph = graph;
+        this.offsets = graph.offsets();
+        this.targets = graph.targets();
+        this.stack = new int[vertexCount];
+        this.cursor = new int[vertexCount];
+        this.mark = new int[vertexCount];
+        reset();
+    }
+
+    // Forget all visited vertices
+    public void reset() {
+        if (generation >= (Integer.MAX_VALUE >> 1) - 1) {
+            Arrays.fill(mark, 0);
+            generation = 0;
+        }
+        generation++;
+    }
+
+    // Check if a vertex was reached since the last reset
+    public boolean isVisited(int vertex) {
+        checkId(vertex);
+        return mark[vertex] >= 2 * generation;
+    }
+
+    /**
+     * New search from one vertex
+     * @return false if the visitor stopped it
+     */
+    public boolean run(int source, Visitor visitor) {
+        reset();
+        return search(source, visitor);
+    }
+
+    /**
+     * New search covering the whole graph: one DFS tree from every vertex not yet
+     * reached, in ID order
+     * @return false if the visitor stopped it
+     */
+    public boolean runAll(Visitor visitor) {
+        reset();
+        for (int vertex = 0; vertex < mark.length; vertex++) {
+            if (!isVisited(vertex) && !search(vertex, visitor)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Continue the current search from another vertex, skipping vertices reached
+     * since the last reset (does nothing if source was already reached).
+     * After a search stops early, call reset() before searching again.
+     * @return false if the visitor stopped it
+     */
+    public boolean search(int source, Visitor visitor) {
+        checkId(source);
+        if (isVisited(source)) {
+            return true;
+        }
+        int active = 2 * generation;
+        int finished = active + 1;
+        int top = 0;
+        mark[source] = active;
+        if (!visitor.preVisit(source, -1)) {
+            return false;
+        }
+        stack[top] = source;
+        cursor[top++] = offsets[source];
+
+        while (top > 0) {
+            int vertex = stack[top - 1];
+            int edge = cursor[top - 1];
+            if (edge == offsets[vertex + 1]) {
+                // All edges done
+                top--;
+                mark[vertex] = finished;
+                if (!visitor.postVisit(vertex, top > 0 ? stack[top - 1] : -1)) {
+                    return false;
+                }
+                continue;
+            }
+            cursor[top - 1] = edge + 1;
+
+            int target = targets[edge];
+            int state = mark[target];
+            boolean proceed;
+            if (state < active) {
+                // Tree edge: descend
+                mark[target] = active;
+                proceed = visitor.preVisit(target, vertex);
+                stack[top] = target;
+                cursor[top++] = offsets[target];
+            } else if (state == active) {
+                proceed = visitor.backEdge(vertex, target);
+            } else {
+                proceed = visitor.finishedEdge(vertex, target);
+            }
+            if (!proceed) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Topological order of all vertices (every edge goes from earlier to later)
+     * @return vertex IDs in topological order, or null if the graph has a cycle
+     */
+    public int[] topologicalSort() {
+        int[] order = new int[mark.length];
+        int[] next = {order.length};
+        boolean acyclic = runAll(new Visitor() {
+            @Override
+            public boolean postVisit(int vertex, int parent) {
+                // Reverse post-order: fill from the back
+                order[--next[0]] = vertex;
+                return true;
+            }
+
+            @Override
+            public boolean backEdge(int vertex, int ancestor) {
+                return false;
+            }
+        });
+        return acyclic ? order : null;
+    }
+
+    /**
+     * Check if the graph has a cycle. A directed graph has one iff DFS finds a
+     * back edge (a self-loop counts); an undirected graph iff it is not a forest,
+     * i.e. it has more edges than vertices minus trees.
+     */
+    public boolean hasCycle() {
+        if (graph.isDirected()) {
+            return !runAll(new Visitor() {
+                @Override
+                public boolean backEdge(int vertex, int ancestor) {
+                    return false;
+                }
+            });
+        }
+        int[] trees = {0};
+        runAll(new Visitor() {
+            @Override
+            public boolean preVisit(int vertex, int parent) {
+                if (parent < 0) {
+                    trees[0]++;
+                }
+                return true;
+            }
+        });
+        // Every undirected edge is stored once in each direction
+        return targets.length / 2 > mark.length - trees[0];
+    }
+
+    /**
+     * Strongly connected components with Tarjan's algorithm (one DFS pass)
+     * @return component number per vertex ID; numbers are in reverse topological
+     *         order of the component graph (edges go from higher to lower numbers)
+     */
+    public int[] tarjanComponents() {
+        int vertexCount = mark.length;
+        int[] component = new int[vertexCount];
+        int[] index = new int[vertexCount];
+        int[] low = new int[vertexCount];
+        // Vertices visited but not yet assigned to a component
+        int[] open = new int[vertexCount];
+        int[] counters = new int[3]; // next index, open stack size, next component
+
+        Arrays.fill(component, -1);
+        runAll(new Visitor() {
+            @Override
+            public boolean preVisit(int vertex, int parent) {
+                index[vertex] = low[vertex] = counters[0]++;
+                open[counters[1]++] = vertex;
+                return true;
+            }
+
+            @Override
+            public boolean backEdge(int vertex, int ancestor) {
+                low[vertex] = Math.min(low[vertex], index[ancestor]);
+                return true;
+            }
+
+            @Override
+            public boolean finishedEdge(int vertex, int target) {
+                // Only targets still open belong to the current component
+                if (component[target] < 0) {
+                    low[vertex] = Math.min(low[vertex], index[target]);
+                }
+                return true;
+            }
+
+            @Override
+            public boolean postVisit(int vertex, int parent) {
+                if (low[vertex] == index[vertex]) {
+                    // vertex is the root of a component: pop it off the open stack
+                    int number = counters[2]++;
+                    int member;
+                    do {
+                        member = open[--counters[1]];
+                        component[member] = number;
+                    } while (member != vertex);
+                }
+                if (parent >= 0) {
+                    low[parent] = Math.min(low[parent], low[vertex]);
+                }
+                return true;
+            }
+        });
+        return component;
+    }
+
+    /**
+     * Strongly connected components with Kosaraju's algorithm: DFS for finish
+     * order, then DFS on the reverse graph in decreasing finish time
+     * @return component number per vertex ID; numbers are in topological order
+     *         of the component graph (edges go from lower to higher numbers)
+     */
+    public int[] kosarajuComponents() {
+        int vertexCount = mark.length;
+        int[] finishOrder = new int[vertexCount];
+        int[] count = {0};
+        runAll(new Visitor() {
+            @Override
+            public boolean postVisit(int vertex, int parent) {
+                finishOrder[count[0]++] = vertex;
+                return true;
+            }
+        });
+
+        if (reverse == null) {
+            reverse = graph.isDirected() ? new DepthFirstSearch(graph.reverse()) : this;
+        }
+        int[] component = new int[vertexCount];
+        int[] number = {0};
+        Visitor assign = new Visitor() {
+            @Override
+            public boolean preVisit(int vertex, int parent) {
+                component[vertex] = number[0];
+                return true;
+            }
+        };
+        reverse.reset();
+        for (int i = vertexCount - 1; i >= 0; i--) {
+            int root = finishOrder[i];
+            if (!reverse.isVisited(root)) {
+                reverse.search(root, assign);
+                number[0]++;
+            }
+        }
+        return component;
+    }
+
+    private void checkId(int vertex) {
+        if (vertex < 0 || vertex >= mark.length) {
+            throw new IndexOutOfBoundsException("Vertex: " + vertex + ", Vertex count: " + mark.length);
+        }
+    }
+}
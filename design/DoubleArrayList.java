@@ -0,0 +1,146 @@
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+
+/**
+ * ArrayList specialized for primitive double values.
+ * Stores elements in a double[] instead of Object[], so there is no boxed
+ * wrapper per element.
+ */
+public class DoubleArrayList {
+    private static final int DEFAULT_CAPACITY = 10;
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+    private double[] elements;
+    private int size;
+
+    // Constructor
+    public DoubleArrayList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    // Constructor with initial capacity
+    public DoubleArrayList(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative: " + initialCapacity);
+        }
+        this.elements = new double[initialCapacity];
+        this.size = 0;
+    }
+
+    // Get size
+    public int size() {
+        return size;
+    }
+
+    // Check if empty
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Add element to end
+    public boolean add(double element) {
+        ensureCapacity(size + 1);
+        elements[size++] = element;
+        return true;
+    }
+
+    // Add all values to end
+    public void addAll(double[] values) {
+        addAll(values, 0, values.length);
+    }
+
+    // Add values[offset, offset + length) to end
+    public void addAll(double[] values, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > values.length) {
+            throw new IndexOutOfBoundsException("Offset: " + offset + ", Length: " + length + ", Array length: " + values.length);
+        }
+        ensureCapacity(size + length);
+        System.arraycopy(values, offset, elements, size, length);
+        size += length;
+    }
+
+    // Get element at index
+    public double get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return elements[index];
+    }
+
+    // Set element at index
+    public double set(int index, double element) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        double oldValue = elements[index];
+        elements[index] = element;
+        return oldValue;
+    }
+
+    // Remove element at index
+    public double remove(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+
+        double oldValue = elements[index];
+
+        int numMoved = size - index - 1;
+        if (numMoved > 0) {
+            System.arraycopy(elements, index + 1, elements, index, numMoved);
+        }
+        size--;
+
+        return oldValue;
+    }
+
+    // Clear all elements (primitives hold no references, so nothing to null out)
+    public void clear() {
+        size = 0;
+    }
+
+    // Sort elements in ascending order (-0.0 before 0.0, NaN last, as Arrays.sort)
+    public void sort() {
+        Arrays.sort(elements, 0, size);
+    }
+
+    // Binary search a sorted list; returns the index, or -(insertion point) - 1 if absent
+    public int binarySearch(double key) {
+        return Arrays.binarySearch(elements, 0, size, key);
+    }
+
+    // Copy elements into a new array of exactly size() values
+    public double[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    // Zero-copy, read-only view of the current elements.
+    // It reads the backing array directly and is invalidated when the list grows.
+    public DoubleBuffer asBuffer() {
+        return DoubleBuffer.wrap(elements, 0, size).slice().asReadOnlyBuffer();
+    }
+
+    // Ensure capacity is sufficient
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity < 0 || minCapacity > MAX_CAPACITY) {
+            throw new OutOfMemoryError("Required capacity too large: " + Integer.toUnsignedString(minCapacity));
+        }
+        if (minCapacity > elements.length) {
+            int newCapacity = (int) Math.min(MAX_CAPACITY, Math.max(elements.length * 2L, minCapacity));
+            elements = Arrays.copyOf(elements, newCapacity);
+        }
+    }
+
+    // Simple toString implementation
+    @Override
+    public String toString() {
+        if (size == 0) return "[]";
+
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            sb.append(elements[i]);
+            if (i < size - 1) sb.append(", ");
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+}
@@ -4,80 +4,295 @@ import java.util.*;
  * Basic Graph implementation with fundamental operations
  */
 public class Graph<T> {
+    /**
+     * How each vertex stores its edges.
+     * LIST keeps every edge in insertion order, parallel edges included; hasEdge
+     * and removeEdge scan the source's list and removeVertex scans every list.
+     * HASH_SET keeps at most one edge per (source, destination) pair in a hash map
+     * per vertex (adding it again replaces the weight), plus a reverse index of
+     * in-edges for directed graphs: hasEdge and removeEdge are O(1), and
+     * removeVertex only touches the vertex's own neighbors. Suited to graphs with
+     * continuous edge churn.
+     * In both modes an undirected edge is two arcs, one per direction, and so is an
+     * undirected self-loop: LIST stores it twice, and HASH_SET stores it once but
+     * getAdjacentVertices and getEdgeWeights report it twice.
+     */
+    public enum Adjacency {LIST, HASH_SET}
+    
+    // Weight of edges added without one; shared so unweighted edges box nothing new
+    private static final Double DEFAULT_WEIGHT = 1.0;
+    private final Adjacency adjacency;
+    // LIST mode
     private Map<T, List<T>> adjacencyList;
+    // Edge weights, parallel to each adjacency list
+    private Map<T, List<Double>> weights;
+    // HASH_SET mode: destination -> weight per source, in insertion order
+    private Map<T, Map<T, Double>> adjacencySets;
+    // HASH_SET mode, directed only: sources of each vertex's in-edges
+    private Map<T, Set<T>> incoming;
     private boolean isDirected;
     
     // Constructor
     public Graph(boolean isDirected) {
-        this.adjacencyList = new HashMap<>();
+        this(isDirected, Adjacency.LIST);
+    }
+    
+    // Constructor with adjacency storage
+    public Graph(boolean isDirected, Adjacency adjacency) {
+        if (adjacency == null) {
+            throw new IllegalArgumentException("Adjacency cannot be null");
+        }
+        this.adjacency = adjacency;
+        if (adjacency == Adjacency.LIST) {
+            this.adjacencyList = new HashMap<>();
+            this.weights = new HashMap<>();
+        } else {
+            this.adjacencySets = new HashMap<>();
+            if (isDirected) {
+                this.incoming = new HashMap<>();
+            }
+        }
         this.isDirected = isDirected;
     }
     
     // Add a vertex
     public void addVertex(T vertex) {
-        if (!adjacencyList.containsKey(vertex)) {
+        if (hasVertex(vertex)) {
+            return;
+        }
+        if (adjacency == Adjacency.LIST) {
             adjacencyList.put(vertex, new ArrayList<>());
+            weights.put(vertex, new ArrayList<>());
+        } else {
+            adjacencySets.put(vertex, new LinkedHashMap<>());
+            if (incoming != null) {
+                incoming.put(vertex, new HashSet<>());
+            }
         }
     }
     
-    // Add an edge
+    // Check if vertex exists
+    public boolean hasVertex(T vertex) {
+        return vertices().containsKey(vertex);
+    }
+    
+    // Add an edge with weight 1
     public void addEdge(T source, T destination) {
+        insertEdge(source, destination, DEFAULT_WEIGHT);
+    }
+    
+    // Add a weighted edge
+    public void addEdge(T source, T destination, double weight) {
+        insertEdge(source, destination, weight == DEFAULT_WEIGHT ? DEFAULT_WEIGHT : Double.valueOf(weight));
+    }
+    
+    private void insertEdge(T source, T destination, Double weight) {
         // Add vertices if they don't exist
-        if (!adjacencyList.containsKey(source)) {
+        if (!hasVertex(source)) {
             addVertex(source);
         }
         
-        if (!adjacencyList.containsKey(destination)) {
+        if (!hasVertex(destination)) {
             addVertex(destination);
         }
         
+        if (adjacency == Adjacency.HASH_SET) {
+            adjacencySets.get(source).put(destination, weight);
+            if (isDirected) {
+                incoming.get(destination).add(source);
+            } else {
+                adjacencySets.get(destination).put(source, weight);
+            }
+            return;
+        }
+        
         // Add edge
         adjacencyList.get(source).add(destination);
+        weights.get(source).add(weight);
         
         // If undirected, add edge in opposite direction
         if (!isDirected) {
             adjacencyList.get(destination).add(source);
+            weights.get(destination).add(weight);
         }
     }
     
     // Remove an edge
     public void removeEdge(T source, T destination) {
-        if (adjacencyList.containsKey(source)) {
-            adjacencyList.get(source).remove(destination);
+        if (adjacency == Adjacency.HASH_SET) {
+            Map<T, Double> neighbors = adjacencySets.get(source);
+            if (neighbors == null || !neighbors.containsKey(destination)) {
+                return;
+            }
+            neighbors.remove(destination);
+            if (isDirected) {
+                incoming.get(destination).remove(source);
+            } else {
+                adjacencySets.get(destination).remove(source);
+            }
+            return;
         }
         
-        if (!isDirected && adjacencyList.containsKey(destination)) {
-            adjacencyList.get(destination).remove(source);
+        removeFirst(source, destination);
+        
+        if (!isDirected) {
+            removeFirst(destination, source);
+        }
+    }
+    
+    // Remove the first source -> destination edge and its weight
+    private void removeFirst(T source, T destination) {
+        List<T> neighbors = adjacencyList.get(source);
+        if (neighbors == null) {
+            return;
+        }
+        int index = neighbors.indexOf(destination);
+        if (index >= 0) {
+            neighbors.remove(index);
+            weights.get(source).remove(index);
         }
     }
     
     // Remove a vertex
     public void removeVertex(T vertex) {
+        if (adjacency == Adjacency.HASH_SET) {
+            removeVertexFromSets(vertex);
+            return;
+        }
+        
         // Remove vertex as a destination from all other vertices
         for (T v : adjacencyList.keySet()) {
-            adjacencyList.get(v).remove(vertex);
+            List<T> neighbors = adjacencyList.get(v);
+            for (int i = neighbors.size() - 1; i >= 0; i--) {
+                if (Objects.equals(neighbors.get(i), vertex)) {
+                    neighbors.remove(i);
+                    weights.get(v).remove(i);
+                }
+            }
         }
         
         // Remove the vertex and its adjacency list
         adjacencyList.remove(vertex);
+        weights.remove(vertex);
+    }
+    
+    // HASH_SET mode: unlink the vertex from its neighbors only
+    private void removeVertexFromSets(T vertex) {
+        Map<T, Double> neighbors = adjacencySets.get(vertex);
+        if (neighbors == null) {
+            return;
+        }
+        
+        if (isDirected) {
+            // Drop the out-edges of every source pointing here, then this vertex from its destinations' in-edges
+            for (T source : incoming.get(vertex)) {
+                adjacencySets.get(source).remove(vertex);
+            }
+            for (T destination : neighbors.keySet()) {
+                incoming.get(destination).remove(vertex);
+            }
+            incoming.remove(vertex);
+        } else {
+            for (T neighbor : neighbors.keySet()) {
+                if (!Objects.equals(neighbor, vertex)) {
+                    adjacencySets.get(neighbor).remove(vertex);
+                }
+            }
+        }
+        adjacencySets.remove(vertex);
     }
     
-    // Get adjacent vertices
+    // Get adjacent vertices (a copy in HASH_SET mode)
     public List<T> getAdjacentVertices(T vertex) {
+        if (adjacency == Adjacency.HASH_SET) {
+            List<T> neighbors = new ArrayList<>();
+            for (Map.Entry<T, Double> entry : arcs(vertex)) {
+                neighbors.add(entry.getKey());
+            }
+            return neighbors;
+        }
         return adjacencyList.getOrDefault(vertex, new ArrayList<>());
     }
     
+    // Get edge weights, in the same order as getAdjacentVertices
+    public List<Double> getEdgeWeights(T vertex) {
+        if (adjacency == Adjacency.HASH_SET) {
+            List<Double> edgeWeights = new ArrayList<>();
+            for (Map.Entry<T, Double> entry : arcs(vertex)) {
+                edgeWeights.add(entry.getValue());
+            }
+            return edgeWeights;
+        }
+        return weights.getOrDefault(vertex, new ArrayList<>());
+    }
+    
+    // HASH_SET mode: out-edges of a vertex as arcs, with an undirected self-loop listed twice like LIST
+    private List<Map.Entry<T, Double>> arcs(T vertex) {
+        List<Map.Entry<T, Double>> arcs = new ArrayList<>();
+        Map<T, Double> neighbors = adjacencySets.get(vertex);
+        if (neighbors == null) {
+            return arcs;
+        }
+        for (Map.Entry<T, Double> entry : neighbors.entrySet()) {
+            arcs.add(entry);
+            if (!isDirected && Objects.equals(entry.getKey(), vertex)) {
+                arcs.add(entry);
+            }
+        }
+        return arcs;
+    }
+    
+    // Get the weight of the first source -> destination edge, or null if there is none
+    public Double getEdgeWeight(T source, T destination) {
+        if (!hasVertex(source)) {
+            return null;
+        }
+        if (adjacency == Adjacency.HASH_SET) {
+            return adjacencySets.get(source).get(destination);
+        }
+        int index = adjacencyList.get(source).indexOf(destination);
+        return index >= 0 ? weights.get(source).get(index) : null;
+    }
+    
+    // Get all vertices (read-only view)
+    public Set<T> getVertices() {
+        return Collections.unmodifiableSet(vertices().keySet());
+    }
+    
+    // Get adjacency storage
+    public Adjacency getAdjacency() {
+        return adjacency;
+    }
+    
+    // Check if directed
+    public boolean isDirected() {
+        return isDirected;
+    }
+    
     // Check if edge exists
     public boolean hasEdge(T source, T destination) {
-        if (!adjacencyList.containsKey(source)) {
+        if (!hasVertex(source)) {
             return false;
         }
+        if (adjacency == Adjacency.HASH_SET) {
+            return adjacencySets.get(source).containsKey(destination);
+        }
         return adjacencyList.get(source).contains(destination);
     }
     
+    // Per-vertex map of the active storage
+    private Map<T, ?> vertices() {
+        return adjacency == Adjacency.LIST ? adjacencyList : adjacencySets;
+    }
+    
+    // Live view of a vertex's neighbors in the active storage
+    private Collection<T> neighbors(T vertex) {
+        return adjacency == Adjacency.LIST ? adjacencyList.get(vertex) : adjacencySets.get(vertex).keySet();
+    }
+    
     // BFS traversal
     public void bfs(T startVertex) {
-        if (!adjacencyList.containsKey(startVertex)) {
+        if (!hasVertex(startVertex)) {
             return;
         }
         
@@ -92,7 +307,7 @@ public class Graph<T> {
             T vertex = queue.poll();
             System.out.print(vertex + " ");
             
-            for (T neighbor : adjacencyList.get(vertex)) {
+            for (T neighbor : neighbors(vertex)) {
                 if (!visited.contains(neighbor)) {
                     visited.add(neighbor);
                     queue.add(neighbor);
@@ -104,33 +319,39 @@ public class Graph<T> {
     
     // DFS traversal
     public void dfs(T startVertex) {
-        if (!adjacencyList.containsKey(startVertex)) {
+        if (!hasVertex(startVertex)) {
             return;
         }
         
         Set<T> visited = new HashSet<>();
+        // One neighbor iterator per vertex on the path, instead of one call frame, so long paths cannot overflow
+        Stack<Iterator<T>> stack = new Stack<>();
         
-        System.out.print("DFS: ");
-        dfsUtil(startVertex, visited);
-        System.out.println();
-    }
-    
-    private void dfsUtil(T vertex, Set<T> visited) {
-        visited.add(vertex);
-        System.out.print(vertex + " ");
-        
-        for (T neighbor : adjacencyList.get(vertex)) {
+        visited.add(startVertex);
+        System.out.print("DFS: " + startVertex + " ");
+        stack.push(neighbors(startVertex).iterator());
+        while (!stack.isEmpty()) {
+            Iterator<T> neighbors = stack.peek();
+            if (!neighbors.hasNext()) {
+                stack.pop();
+                continue;
+            }
+            
+            T neighbor = neighbors.next();
             if (!visited.contains(neighbor)) {
-                dfsUtil(neighbor, visited);
+                visited.add(neighbor);
+                System.out.print(neighbor + " ");
+                stack.push(neighbors(neighbor).iterator());
             }
         }
+        System.out.println();
     }
     
     // Print the graph
     public void printGraph() {
-        for (Map.Entry<T, List<T>> entry : adjacencyList.entrySet()) {
-            System.out.print(entry.getKey() + " -> ");
-            List<T> neighbors = entry.getValue();
+        for (T vertex : vertices().keySet()) {
+            System.out.print(vertex + " -> ");
+            Collection<T> neighbors = neighbors(vertex);
             
             if (neighbors.isEmpty()) {
                 System.out.println("No edges");
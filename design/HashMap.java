@@ -1,5 +1,7 @@
 /**
- * Basic HashMap implementation with fundamental operations
+ * Basic HashMap implementation with fundamental operations.
+ * Buckets whose chain grows past TREEIFY_THRESHOLD are converted into balanced
+ * (AVL) trees so lookups stay O(log n) even when many keys collide.
  */
 public class HashMap<K, V> {
     // Entry class for key-value pairs
@@ -15,19 +17,177 @@ public class HashMap<K, V> {
         }
     }
     
+    // Tree node for a treeified bucket, ordered like BinarySearchTree but by
+    // (hash, class name, compareTo, insertion sequence)
+    private class TreeNode {
+        K key;
+        V value;
+        int hash;
+        long seq;
+        TreeNode left;
+        TreeNode right;
+        int height;
+        
+        TreeNode(int hash, K key, V value, long seq) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.seq = seq;
+            this.height = 1;
+        }
+    }
+    
+    // Bucket head that holds a balanced tree instead of a chain
+    private class TreeBin extends Entry<K, V> {
+        TreeNode root;
+        int count;
+        long nextSeq;
+        
+        TreeBin() {
+            super(null, null);
+        }
+        
+        // Find the node for a key, or null if absent
+        TreeNode find(int hash, K key) {
+            return findRec(root, hash, key);
+        }
+        
+        private TreeNode findRec(TreeNode node, int hash, K key) {
+            while (node != null) {
+                int compareResult = compareKeys(hash, key, node.hash, node.key);
+                if (compareResult < 0) {
+                    node = node.left;
+                } else if (compareResult > 0) {
+                    node = node.right;
+                } else if (key.equals(node.key)) {
+                    return node;
+                } else {
+                    // Keys that cannot be ordered against each other: search both sides
+                    TreeNode found = findRec(node.left, hash, key);
+                    if (found != null) {
+                        return found;
+                    }
+                    node = node.right;
+                }
+            }
+            return null;
+        }
+        
+        // Insert a new key, or return the existing node for it without changing it
+        TreeNode insert(int hash, K key, V value) {
+            TreeNode existing = find(hash, key);
+            if (existing != null) {
+                return existing;
+            }
+            root = insertRec(root, new TreeNode(hash, key, value, nextSeq++));
+            count++;
+            return null;
+        }
+        
+        private TreeNode insertRec(TreeNode node, TreeNode newNode) {
+            if (node == null) {
+                return newNode;
+            }
+            
+            if (compareNodes(newNode, node) < 0) {
+                node.left = insertRec(node.left, newNode);
+            } else {
+                node.right = insertRec(node.right, newNode);
+            }
+            
+            return rebalance(node);
+        }
+        
+        // Remove the node for a key and return it, or null if absent
+        TreeNode remove(int hash, K key) {
+            TreeNode target = find(hash, key);
+            if (target != null) {
+                root = deleteRec(root, target);
+                count--;
+            }
+            return target;
+        }
+        
+        private TreeNode deleteRec(TreeNode node, TreeNode target) {
+            if (node == target) {
+                // Node with only one child or no child
+                if (node.left == null) {
+                    return node.right;
+                } else if (node.right == null) {
+                    return node.left;
+                }
+                
+                // Node with two children: splice in the inorder successor
+                TreeNode successor = node.right;
+                while (successor.left != null) {
+                    successor = successor.left;
+                }
+                successor.right = deleteRec(node.right, successor);
+                successor.left = node.left;
+                return rebalance(successor);
+            }
+            
+            if (compareNodes(target, node) < 0) {
+                node.left = deleteRec(node.left, target);
+            } else {
+                node.right = deleteRec(node.right, target);
+            }
+            
+            return rebalance(node);
+        }
+        
+        // Convert the tree back into a plain chain, in key order
+        Entry<K, V> toChain() {
+            return toChainRec(root, null);
+        }
+        
+        private Entry<K, V> toChainRec(TreeNode node, Entry<K, V> tail) {
+            if (node == null) {
+                return tail;
+            }
+            tail = toChainRec(node.right, tail);
+            Entry<K, V> entry = new Entry<>(node.key, node.value);
+            entry.next = tail;
+            return toChainRec(node.left, entry);
+        }
+    }
+    
+    // Chains at least this long are converted into trees
+    private static final int TREEIFY_THRESHOLD = 8;
+    // Trees this small are converted back into chains
+    private static final int UNTREEIFY_THRESHOLD = 6;
+    
     private static final int DEFAULT_CAPACITY = 16;
     private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+    // Old buckets moved to the new table on each operation during an incremental resize
+    private static final int MIGRATION_STEP = 4;
     
     private Entry<K, V>[] buckets;
     private int size;
     private float loadFactor;
     
+    // Incremental resize state: while oldBuckets is non-null, old buckets at
+    // index >= migrationIndex have not been moved to buckets yet
+    private final boolean incrementalResize;
+    private Entry<K, V>[] oldBuckets;
+    private int migrationIndex;
+    
     // Constructor
-    @SuppressWarnings("unchecked")
     public HashMap() {
+        this(false);
+    }
+    
+    /**
+     * Constructor to choose the resize strategy
+     * @param incrementalResize true to spread rehashing over later operations
+     *                          instead of rehashing every entry at once
+     */
+    @SuppressWarnings("unchecked")
+    public HashMap(boolean incrementalResize) {
         this.buckets = (Entry<K, V>[]) new Entry[DEFAULT_CAPACITY];
         this.size = 0;
         this.loadFactor = DEFAULT_LOAD_FACTOR;
+        this.incrementalResize = incrementalResize;
     }
     
     // Get size
@@ -40,10 +200,23 @@ public class HashMap<K, V> {
         return size == 0;
     }
     
-    // Get the index in the bucket array
-    private int getIndex(K key) {
-        int hashCode = key.hashCode();
-        return (hashCode & 0x7FFFFFFF) % buckets.length;
+    // Mix the hash code so keys with poor hashCode values still spread over the low bits
+    private static int hash(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+    
+    // Get the index in a bucket array of the given (power-of-two) length
+    private static int getIndex(int hash, int length) {
+        return hash & (length - 1);
+    }
+    
+    // Get the bucket array currently holding the chain for a hash
+    private Entry<K, V>[] bucketsFor(int hash) {
+        if (oldBuckets != null && getIndex(hash, oldBuckets.length) >= migrationIndex) {
+            return oldBuckets;
+        }
+        return buckets;
     }
     
     // Put a key-value pair
@@ -52,15 +225,35 @@ public class HashMap<K, V> {
             throw new IllegalArgumentException("Key cannot be null");
         }
         
+        migrateBuckets();
+        
         // Check if we need to resize
         if (size >= buckets.length * loadFactor) {
-            resize();
+            if (incrementalResize) {
+                startIncrementalResize();
+            } else {
+                resize();
+            }
         }
         
-        int index = getIndex(key);
-        Entry<K, V> entry = buckets[index];
+        int hash = hash(key);
+        Entry<K, V>[] table = bucketsFor(hash);
+        int index = getIndex(hash, table.length);
+        Entry<K, V> entry = table[index];
+        
+        if (entry instanceof TreeBin) {
+            TreeNode existing = ((TreeBin) entry).insert(hash, key, value);
+            if (existing != null) {
+                V oldValue = existing.value;
+                existing.value = value; // Update value
+                return oldValue;
+            }
+            size++;
+            return null;
+        }
         
         // Check if key already exists
+        int chainLength = 0;
         while (entry != null) {
             if (entry.key.equals(key)) {
                 V oldValue = entry.value;
@@ -68,14 +261,19 @@ public class HashMap<K, V> {
                 return oldValue;
             }
             entry = entry.next;
+            chainLength++;
         }
         
         // Insert new entry at the beginning of the bucket
         Entry<K, V> newEntry = new Entry<>(key, value);
-        newEntry.next = buckets[index];
-        buckets[index] = newEntry;
+        newEntry.next = table[index];
+        table[index] = newEntry;
         size++;
         
+        if (chainLength + 1 >= TREEIFY_THRESHOLD) {
+            treeify(table, index);
+        }
+        
         return null;
     }
     
@@ -85,8 +283,16 @@ public class HashMap<K, V> {
             throw new IllegalArgumentException("Key cannot be null");
         }
         
-        int index = getIndex(key);
-        Entry<K, V> entry = buckets[index];
+        migrateBuckets();
+        
+        int hash = hash(key);
+        Entry<K, V>[] table = bucketsFor(hash);
+        Entry<K, V> entry = table[getIndex(hash, table.length)];
+        
+        if (entry instanceof TreeBin) {
+            TreeNode node = ((TreeBin) entry).find(hash, key);
+            return node == null ? null : node.value;
+        }
         
         while (entry != null) {
             if (entry.key.equals(key)) {
@@ -104,14 +310,31 @@ public class HashMap<K, V> {
             throw new IllegalArgumentException("Key cannot be null");
         }
         
-        int index = getIndex(key);
-        Entry<K, V> current = buckets[index];
+        migrateBuckets();
+        
+        int hash = hash(key);
+        Entry<K, V>[] table = bucketsFor(hash);
+        int index = getIndex(hash, table.length);
+        Entry<K, V> current = table[index];
         Entry<K, V> prev = null;
         
+        if (current instanceof TreeBin) {
+            TreeBin bin = (TreeBin) current;
+            TreeNode removed = bin.remove(hash, key);
+            if (removed == null) {
+                return null; // Key not found
+            }
+            if (bin.count <= UNTREEIFY_THRESHOLD) {
+                table[index] = bin.toChain();
+            }
+            size--;
+            return removed.value;
+        }
+        
         while (current != null) {
             if (current.key.equals(key)) {
                 if (prev == null) {
-                    buckets[index] = current.next; // Removing head of the bucket
+                    table[index] = current.next; // Removing head of the bucket
                 } else {
                     prev.next = current.next;
                 }
@@ -131,8 +354,16 @@ public class HashMap<K, V> {
             throw new IllegalArgumentException("Key cannot be null");
         }
         
-        int index = getIndex(key);
-        Entry<K, V> entry = buckets[index];
+        migrateBuckets();
+        
+        int hash = hash(key);
+        Entry<K, V>[] table = bucketsFor(hash);
+        Entry<K, V> entry = table[getIndex(hash, table.length)];
+        
+        if (entry instanceof TreeBin) {
+            TreeBin bin = (TreeBin) entry;
+            return bin.find(hash, key) != null;
+        }
         
         while (entry != null) {
             if (entry.key.equals(key)) {
@@ -149,6 +380,8 @@ public class HashMap<K, V> {
         for (int i = 0; i < buckets.length; i++) {
             buckets[i] = null;
         }
+        oldBuckets = null;
+        migrationIndex = 0;
         size = 0;
     }
     
@@ -161,10 +394,150 @@ public class HashMap<K, V> {
         
         // Rehash all existing entries
         for (Entry<K, V> entry : oldBuckets) {
+            entry = asChain(entry);
             while (entry != null) {
                 put(entry.key, entry.value);
                 entry = entry.next;
             }
         }
     }
+    
+    // Start an incremental resize: allocate the new table and keep the old one
+    // around until migrateBuckets() has moved every chain across
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void startIncrementalResize() {
+        // Finish a migration that is still in flight before growing again
+        while (oldBuckets != null) {
+            migrateBuckets();
+        }
+        
+        oldBuckets = buckets;
+        buckets = (Entry<K, V>[]) new Entry[oldBuckets.length * 2];
+        migrationIndex = 0;
+    }
+    
+    // Move up to MIGRATION_STEP old buckets into the new table
+    private void migrateBuckets() {
+        if (oldBuckets == null) {
+            return;
+        }
+        
+        int end = Math.min(migrationIndex + MIGRATION_STEP, oldBuckets.length);
+        for (; migrationIndex < end; migrationIndex++) {
+            Entry<K, V> entry = asChain(oldBuckets[migrationIndex]);
+            int lowLength = 0;
+            int highLength = 0;
+            while (entry != null) {
+                Entry<K, V> next = entry.next;
+                int index = getIndex(hash(entry.key), buckets.length);
+                entry.next = buckets[index];
+                buckets[index] = entry;
+                if (index == migrationIndex) {
+                    lowLength++;
+                } else {
+                    highLength++;
+                }
+                entry = next;
+            }
+            oldBuckets[migrationIndex] = null;
+            
+            // An old bucket splits into new buckets i and i + oldLength
+            if (lowLength >= TREEIFY_THRESHOLD) {
+                treeify(buckets, migrationIndex);
+            }
+            if (highLength >= TREEIFY_THRESHOLD) {
+                treeify(buckets, migrationIndex + oldBuckets.length);
+            }
+        }
+        
+        if (migrationIndex == oldBuckets.length) {
+            oldBuckets = null;
+            migrationIndex = 0;
+        }
+    }
+    
+    // Replace the chain in a bucket with a balanced tree
+    private void treeify(Entry<K, V>[] table, int index) {
+        TreeBin bin = new TreeBin();
+        for (Entry<K, V> entry = table[index]; entry != null; entry = entry.next) {
+            bin.insert(hash(entry.key), entry.key, entry.value);
+        }
+        table[index] = bin;
+    }
+    
+    // Get a bucket's entries as a chain, flattening a tree if needed
+    private Entry<K, V> asChain(Entry<K, V> head) {
+        if (head instanceof TreeBin) {
+            return ((TreeBin) head).toChain();
+        }
+        return head;
+    }
+    
+    // Order tree nodes by key, then by insertion sequence so every node has a distinct position
+    private int compareNodes(TreeNode a, TreeNode b) {
+        int compareResult = compareKeys(a.hash, a.key, b.hash, b.key);
+        return compareResult != 0 ? compareResult : Long.compare(a.seq, b.seq);
+    }
+    
+    // Order keys by hash, then class name, then compareTo for Comparable keys of the same class.
+    // Returns 0 when the keys cannot be told apart this way.
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareKeys(int hashA, Object a, int hashB, Object b) {
+        if (hashA != hashB) {
+            return Integer.compare(hashA, hashB);
+        }
+        
+        Class<?> classA = a.getClass();
+        Class<?> classB = b.getClass();
+        if (classA != classB) {
+            return classA.getName().compareTo(classB.getName());
+        }
+        if (a instanceof Comparable) {
+            return Integer.signum(((Comparable) a).compareTo(b));
+        }
+        return 0;
+    }
+    
+    // AVL height of a subtree
+    private int height(TreeNode node) {
+        return node == null ? 0 : node.height;
+    }
+    
+    // Restore the AVL balance of a node after one of its subtrees changed
+    private TreeNode rebalance(TreeNode node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        int balance = height(node.left) - height(node.right);
+        
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+    
+    private TreeNode rotateRight(TreeNode node) {
+        TreeNode pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        pivot.height = 1 + Math.max(height(pivot.left), height(pivot.right));
+        return pivot;
+    }
+    
+    private TreeNode rotateLeft(TreeNode node) {
+        TreeNode pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        pivot.height = 1 + Math.max(height(pivot.left), height(pivot.right));
+        return pivot;
+    }
 }
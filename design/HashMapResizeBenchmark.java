@@ -0,0 +1,54 @@
+import java.util.Arrays;
+
+/**
+ * Latency benchmark comparing HashMap's stop-the-world resize with its
+ * incremental resize mode. Times every put and reports latency percentiles.
+ */
+public class HashMapResizeBenchmark {
+    private static final int ENTRIES = 4_000_000;
+    private static final int WARMUP_ROUNDS = 3;
+
+    public static void main(String[] args) {
+        int entries = args.length > 0 ? Integer.parseInt(args[0]) : ENTRIES;
+
+        // Warm up both code paths before measuring
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            run(false, entries / 4);
+            run(true, entries / 4);
+        }
+
+        report("stop-the-world", run(false, entries));
+        report("incremental", run(true, entries));
+    }
+
+    // Insert keys 0..entries-1 and record the latency of each put in nanoseconds
+    private static long[] run(boolean incremental, int entries) {
+        HashMap<Integer, Integer> map = new HashMap<>(incremental);
+        long[] latencies = new long[entries];
+
+        for (int i = 0; i < entries; i++) {
+            Integer key = i;
+            long start = System.nanoTime();
+            map.put(key, key);
+            latencies[i] = System.nanoTime() - start;
+        }
+
+        return latencies;
+    }
+
+    private static void report(String label, long[] latencies) {
+        Arrays.sort(latencies);
+        System.out.printf("%-15s p50=%dns p99=%dns p99.9=%dns p99.99=%dns max=%.2fms%n",
+                label,
+                percentile(latencies, 0.50),
+                percentile(latencies, 0.99),
+                percentile(latencies, 0.999),
+                percentile(latencies, 0.9999),
+                latencies[latencies.length - 1] / 1_000_000.0);
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
@@ -0,0 +1,245 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+
+/**
+ * Indexed (addressable) PriorityQueue.
+ * Keeps each element's heap position in a HashMap, so contains is O(1) and
+ * remove, decreaseKey and increaseKey are O(log n) instead of a linear scan.
+ * Useful for Dijkstra and schedulers that change priorities instead of inserting duplicates.
+ *
+ * Elements must be unique (by equals/hashCode), and the fields used by
+ * equals/hashCode must not change while the element is in the queue.
+ */
+public class IndexedPriorityQueue<T extends Comparable<T>> {
+    private ArrayList<T> heap;
+    private HashMap<T, Integer> positions;
+    private Comparator<T> comparator;
+
+    /**
+     * Default constructor - creates a min heap
+     */
+    public IndexedPriorityQueue() {
+        this(Comparator.naturalOrder());
+    }
+
+    /**
+     * Constructor to specify heap type
+     * @param isMinHeap true for min heap, false for max heap
+     */
+    public IndexedPriorityQueue(boolean isMinHeap) {
+        this(isMinHeap ? Comparator.<T>naturalOrder() : Comparator.<T>reverseOrder());
+    }
+
+    /**
+     * Constructor with custom comparator
+     * @param comparator the comparator to determine ordering
+     */
+    public IndexedPriorityQueue(Comparator<T> comparator) {
+        this.heap = new ArrayList<>();
+        this.positions = new HashMap<>();
+        this.comparator = comparator;
+    }
+
+    /**
+     * Get the current size of the heap
+     * @return number of elements in the heap
+     */
+    public int size() {
+        return heap.size();
+    }
+
+    /**
+     * Check if the heap is empty
+     * @return true if the heap is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return heap.isEmpty();
+    }
+
+    /**
+     * Insert an element into the priority queue
+     * @param element the element to insert
+     * @throws IllegalArgumentException if an equal element is already in the queue
+     */
+    public void add(T element) {
+        if (positions.containsKey(element)) {
+            throw new IllegalArgumentException("Element already in queue: " + element);
+        }
+        heap.add(element);
+        positions.put(element, heap.size() - 1);
+        siftUp(heap.size() - 1);
+    }
+
+    /**
+     * Add an element to the priority queue (alias for add)
+     * @param element the element to insert
+     */
+    public void offer(T element) {
+        add(element);
+    }
+
+    /**
+     * Remove and return the root element (min for MinHeap, max for MaxHeap)
+     * @return the root element
+     * @throws RuntimeException if the heap is empty
+     */
+    public T poll() {
+        if (isEmpty()) {
+            throw new RuntimeException("Priority queue is empty");
+        }
+        return removeAt(0);
+    }
+
+    /**
+     * Peek at the root element without removing it
+     * @return the root element
+     * @throws RuntimeException if the heap is empty
+     */
+    public T peek() {
+        if (isEmpty()) {
+            throw new RuntimeException("Priority queue is empty");
+        }
+        return heap.get(0);
+    }
+
+    /**
+     * Check if the priority queue contains the specified element in O(1)
+     * @param element the element to check for
+     * @return true if the element is in the queue, false otherwise
+     */
+    public boolean contains(T element) {
+        return positions.containsKey(element);
+    }
+
+    /**
+     * Remove a specific element from the heap in O(log n)
+     * @param element the element to remove
+     * @return true if the element was found and removed, false otherwise
+     */
+    public boolean remove(T element) {
+        Integer index = positions.get(element);
+        if (index == null) {
+            return false; // Element not found
+        }
+        removeAt(index);
+        return true;
+    }
+
+    /**
+     * Signal that an element's priority moved toward the root (smaller for a
+     * min heap) and restore heap order in O(log n). The given instance replaces
+     * the stored one, so either an updated copy or the mutated original may be passed.
+     * @param element the element whose priority improved
+     * @throws IllegalArgumentException if the element is not in the queue
+     */
+    public void decreaseKey(T element) {
+        int index = replace(element);
+        siftUp(index);
+    }
+
+    /**
+     * Signal that an element's priority moved away from the root (larger for a
+     * min heap) and restore heap order in O(log n).
+     * @param element the element whose priority worsened
+     * @throws IllegalArgumentException if the element is not in the queue
+     */
+    public void increaseKey(T element) {
+        int index = replace(element);
+        siftDown(index);
+    }
+
+    /**
+     * Clear all elements from the heap
+     */
+    public void clear() {
+        heap.clear();
+        positions.clear();
+    }
+
+    /**
+     * Replace the stored instance of an element and return its index
+     */
+    private int replace(T element) {
+        Integer index = positions.get(element);
+        if (index == null) {
+            throw new IllegalArgumentException("Element not in queue: " + element);
+        }
+        heap.set(index, element);
+        positions.put(element, index);
+        return index;
+    }
+
+    /**
+     * Remove the element at an index, filling the hole with the last element
+     */
+    private T removeAt(int index) {
+        T removed = heap.get(index);
+        positions.remove(removed);
+
+        T last = heap.remove(heap.size() - 1);
+        if (index < heap.size()) {
+            heap.set(index, last);
+            positions.put(last, index);
+            siftUp(index);
+            siftDown(positions.get(last));
+        }
+        return removed;
+    }
+
+    /**
+     * Move the element at index up until its parent is not larger
+     */
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parentIdx = (index - 1) / 2;
+            if (comparator.compare(heap.get(index), heap.get(parentIdx)) >= 0) {
+                break;
+            }
+            swap(index, parentIdx);
+            index = parentIdx;
+        }
+    }
+
+    /**
+     * Move the element at index down until neither child is smaller
+     */
+    private void siftDown(int index) {
+        int size = heap.size();
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+
+            if (left < size && comparator.compare(heap.get(left), heap.get(smallest)) < 0) {
+                smallest = left;
+            }
+            if (right < size && comparator.compare(heap.get(right), heap.get(smallest)) < 0) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+
+    /**
+     * Swap two elements in the heap and update their positions
+     */
+    private void swap(int i, int j) {
+        T temp = heap.get(i);
+        heap.set(i, heap.get(j));
+        heap.set(j, temp);
+        positions.put(heap.get(i), i);
+        positions.put(heap.get(j), j);
+    }
+
+    /**
+     * Get a string representation of the heap
+     */
+    @Override
+    public String toString() {
+        return heap.toString();
+    }
+}
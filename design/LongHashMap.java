@@ -0,0 +1,210 @@
+/**
+ * Open-addressing HashMap with primitive long keys.
+ * Keys and values live in flat parallel arrays and collisions are resolved
+ * with linear probing, so put/get never allocate a node and never box the key.
+ */
+public class LongHashMap<V> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+    private static final long EMPTY_KEY = 0L;
+
+    private long[] keys;
+    private Object[] values;
+    private int size;
+    private float loadFactor;
+    private int resizeThreshold;
+
+    // Key 0L marks an empty slot, so its mapping is stored out of line
+    private boolean hasZeroKey;
+    private V zeroValue;
+
+    // Constructor
+    public LongHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    // Constructor with initial capacity (rounded up to a power of two)
+    public LongHashMap(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative: " + initialCapacity);
+        }
+        int capacity = tableSizeFor(Math.max(initialCapacity, 2));
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+        this.size = 0;
+        this.loadFactor = DEFAULT_LOAD_FACTOR;
+        this.resizeThreshold = (int) (capacity * loadFactor);
+    }
+
+    // Get size
+    public int size() {
+        return size;
+    }
+
+    // Check if empty
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Mix the key bits and mask into the power-of-two table
+    private int getIndex(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & (keys.length - 1);
+    }
+
+    // Put a key-value pair
+    public V put(long key, V value) {
+        if (key == EMPTY_KEY) {
+            V oldValue = zeroValue;
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            zeroValue = value;
+            return oldValue;
+        }
+
+        int mask = keys.length - 1;
+        int index = getIndex(key);
+
+        // Probe until we find the key or an empty slot
+        while (keys[index] != EMPTY_KEY) {
+            if (keys[index] == key) {
+                V oldValue = valueAt(index);
+                values[index] = value;
+                return oldValue;
+            }
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = key;
+        values[index] = value;
+        size++;
+
+        if (size > resizeThreshold) {
+            resize();
+        }
+
+        return null;
+    }
+
+    // Get value for a key
+    public V get(long key) {
+        if (key == EMPTY_KEY) {
+            return zeroValue;
+        }
+
+        int index = findSlot(key);
+        return index == -1 ? null : valueAt(index);
+    }
+
+    // Remove a key-value pair
+    public V remove(long key) {
+        if (key == EMPTY_KEY) {
+            if (!hasZeroKey) {
+                return null;
+            }
+            V oldValue = zeroValue;
+            hasZeroKey = false;
+            zeroValue = null;
+            size--;
+            return oldValue;
+        }
+
+        int index = findSlot(key);
+        if (index == -1) {
+            return null; // Key not found
+        }
+
+        V oldValue = valueAt(index);
+        shiftBack(index);
+        size--;
+        return oldValue;
+    }
+
+    // Check if the hash map contains a key
+    public boolean containsKey(long key) {
+        if (key == EMPTY_KEY) {
+            return hasZeroKey;
+        }
+        return findSlot(key) != -1;
+    }
+
+    // Clear all entries
+    public void clear() {
+        java.util.Arrays.fill(keys, EMPTY_KEY);
+        java.util.Arrays.fill(values, null);
+        hasZeroKey = false;
+        zeroValue = null;
+        size = 0;
+    }
+
+    // Find the slot holding a key, or -1 if absent
+    private int findSlot(long key) {
+        int mask = keys.length - 1;
+        int index = getIndex(key);
+
+        while (keys[index] != EMPTY_KEY) {
+            if (keys[index] == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    // Backward-shift deletion: pull later entries of the probe run into the gap
+    // so lookups never need tombstones
+    private void shiftBack(int gap) {
+        int mask = keys.length - 1;
+        int index = (gap + 1) & mask;
+
+        while (keys[index] != EMPTY_KEY) {
+            int home = getIndex(keys[index]);
+            // Move the entry if its home slot is not in the range (gap, index]
+            if (((index - home) & mask) >= ((index - gap) & mask)) {
+                keys[gap] = keys[index];
+                values[gap] = values[index];
+                gap = index;
+            }
+            index = (index + 1) & mask;
+        }
+
+        keys[gap] = EMPTY_KEY;
+        values[gap] = null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int index) {
+        return (V) values[index];
+    }
+
+    // Resize the key and value arrays
+    private void resize() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        int newCapacity = oldKeys.length * 2;
+        keys = new long[newCapacity];
+        values = new Object[newCapacity];
+        resizeThreshold = (int) (newCapacity * loadFactor);
+
+        // Reinsert directly; no duplicate check is needed
+        int mask = newCapacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY_KEY) {
+                int index = getIndex(oldKeys[i]);
+                while (keys[index] != EMPTY_KEY) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    // Smallest power of two >= capacity
+    private static int tableSizeFor(int capacity) {
+        int n = Integer.highestOneBit(capacity - 1) << 1;
+        return n <= 0 ? 1 << 30 : n;
+    }
+}
@@ -0,0 +1,217 @@
+import java.util.Arrays;
+
+/**
+ * PriorityQueue specialized for primitive long keys (e.g. deadlines in nanoseconds).
+ * Keys live in a long[] next to a parallel Object[] of values, so add and poll
+ * compare primitives inline and allocate nothing once the arrays are large enough.
+ *
+ * Uses the same 4-ary, hole-based sifting as PriorityQueue. The key and value of
+ * the root are read with peekKey() and peek(); poll() removes the root and returns its value.
+ */
+public class LongPriorityQueue<T> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int ARITY = 4;
+
+    private long[] keys;
+    private Object[] values;
+    private int size;
+    private final boolean isMinHeap;
+
+    /**
+     * Default constructor - creates a min heap
+     */
+    public LongPriorityQueue() {
+        this(true);
+    }
+
+    /**
+     * Constructor to specify heap type
+     * @param isMinHeap true for min heap, false for max heap
+     */
+    public LongPriorityQueue(boolean isMinHeap) {
+        this(isMinHeap, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor with heap type and initial capacity
+     * @param isMinHeap true for min heap, false for max heap
+     * @param initialCapacity number of entries before the arrays grow
+     */
+    public LongPriorityQueue(boolean isMinHeap, int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative: " + initialCapacity);
+        }
+        this.keys = new long[Math.max(1, initialCapacity)];
+        this.values = new Object[keys.length];
+        this.isMinHeap = isMinHeap;
+    }
+
+    /**
+     * Get the current size of the heap
+     * @return number of entries in the heap
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Check if the heap is empty
+     * @return true if the heap is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Insert a value with the given key
+     * @param key the priority
+     * @param value the payload (may be null)
+     */
+    public void add(long key, T value) {
+        if (size == keys.length) {
+            grow();
+        }
+        siftUp(size++, key, value);
+    }
+
+    /**
+     * Add an entry to the priority queue (alias for add)
+     */
+    public void offer(long key, T value) {
+        add(key, value);
+    }
+
+    /**
+     * Peek at the key of the root entry
+     * @return the smallest key for a min heap, the largest for a max heap
+     * @throws RuntimeException if the heap is empty
+     */
+    public long peekKey() {
+        if (isEmpty()) {
+            throw new RuntimeException("Priority queue is empty");
+        }
+        return keys[0];
+    }
+
+    /**
+     * Peek at the value of the root entry without removing it
+     * @return the root value
+     * @throws RuntimeException if the heap is empty
+     */
+    @SuppressWarnings("unchecked")
+    public T peek() {
+        if (isEmpty()) {
+            throw new RuntimeException("Priority queue is empty");
+        }
+        return (T) values[0];
+    }
+
+    /**
+     * Remove the root entry and return its value
+     * @return the root value
+     * @throws RuntimeException if the heap is empty
+     */
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        if (isEmpty()) {
+            throw new RuntimeException("Priority queue is empty");
+        }
+
+        T root = (T) values[0];
+
+        // Move the last entry into the root hole and sift it down
+        int last = --size;
+        long lastKey = keys[last];
+        Object lastValue = values[last];
+        values[last] = null;
+        if (size > 0) {
+            siftDown(0, lastKey, lastValue);
+        }
+
+        return root;
+    }
+
+    /**
+     * Clear all entries from the heap
+     */
+    public void clear() {
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * True if key a belongs closer to the root than key b
+     */
+    private boolean before(long a, long b) {
+        return isMinHeap ? a < b : a > b;
+    }
+
+    /**
+     * Place the entry at the hole at index, moving parents down until it fits
+     */
+    private void siftUp(int index, long key, Object value) {
+        while (index > 0) {
+            int parent = (index - 1) / ARITY;
+            long parentKey = keys[parent];
+            if (!before(key, parentKey)) {
+                break;
+            }
+            keys[index] = parentKey;
+            values[index] = values[parent];
+            index = parent;
+        }
+        keys[index] = key;
+        values[index] = value;
+    }
+
+    /**
+     * Place the entry at the hole at index, moving the best child up until it fits
+     */
+    private void siftDown(int index, long key, Object value) {
+        int firstChild;
+        while ((firstChild = ARITY * index + 1) < size) {
+            int best = firstChild;
+            long bestKey = keys[firstChild];
+            int lastChild = Math.min(firstChild + ARITY, size);
+            for (int child = firstChild + 1; child < lastChild; child++) {
+                if (before(keys[child], bestKey)) {
+                    best = child;
+                    bestKey = keys[child];
+                }
+            }
+
+            if (!before(bestKey, key)) {
+                break;
+            }
+            keys[index] = bestKey;
+            values[index] = values[best];
+            index = best;
+        }
+        keys[index] = key;
+        values[index] = value;
+    }
+
+    private void grow() {
+        int newCapacity = keys.length * 2;
+        keys = Arrays.copyOf(keys, newCapacity);
+        values = Arrays.copyOf(values, newCapacity);
+    }
+
+    /**
+     * Get a string representation of the heap as key=value pairs
+     */
+    @Override
+    public String toString() {
+        if (isEmpty()) return "[]";
+
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            sb.append(keys[i]).append('=').append(values[i]);
+            if (i < size - 1) {
+                sb.append(", ");
+            }
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,234 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * ArrayList variant whose elements live in a memory-mapped file instead of an Object[].
+ * Elements are fixed-width records written through a Codec, so the list can hold far
+ * more data than the heap, costs the garbage collector nothing, and can be reopened
+ * after a restart without reloading. The file grows by mapping new fixed-size chunks,
+ * so nothing is copied when capacity runs out.
+ *
+ * File layout: a 64-byte header (magic, record size, element count) followed by chunks.
+ */
+public class MappedArrayList<T> implements AutoCloseable {
+    // Converts an element to and from its fixed-width record
+    public interface Codec<T> {
+        // Width of one record in bytes
+        int recordSize();
+
+        void write(ByteBuffer buffer, int offset, T value);
+
+        T read(ByteBuffer buffer, int offset);
+    }
+
+    public static final Codec<Long> LONG = new Codec<Long>() {
+        public int recordSize() { return Long.BYTES; }
+        public void write(ByteBuffer buffer, int offset, Long value) { buffer.putLong(offset, value); }
+        public Long read(ByteBuffer buffer, int offset) { return buffer.getLong(offset); }
+    };
+
+    public static final Codec<Double> DOUBLE = new Codec<Double>() {
+        public int recordSize() { return Double.BYTES; }
+        public void write(ByteBuffer buffer, int offset, Double value) { buffer.putDouble(offset, value); }
+        public Double read(ByteBuffer buffer, int offset) { return buffer.getDouble(offset); }
+    };
+
+    public static final Codec<Integer> INT = new Codec<Integer>() {
+        public int recordSize() { return Integer.BYTES; }
+        public void write(ByteBuffer buffer, int offset, Integer value) { buffer.putInt(offset, value); }
+        public Integer read(ByteBuffer buffer, int offset) { return buffer.getInt(offset); }
+    };
+
+    private static final long MAGIC = 0x4D4150504C495354L; // "MAPPLIST"
+    private static final int HEADER_BYTES = 64;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int RECORD_SIZE_OFFSET = 8;
+    private static final int SIZE_OFFSET = 16;
+    private static final int DEFAULT_CHUNK_BYTES = 1 << 26; // 64 MB
+
+    private final FileChannel channel;
+    private final Codec<T> codec;
+    private final int recordSize;
+    private final int recordsPerChunk;
+    private final MappedByteBuffer header;
+    private MappedByteBuffer[] chunks;
+    private int chunkCount;
+    private long size;
+
+    // Open (or create) a list backed by the given file
+    public MappedArrayList(Path file, Codec<T> codec) throws IOException {
+        this(file, codec, DEFAULT_CHUNK_BYTES);
+    }
+
+    /**
+     * Open (or create) a list backed by the given file
+     * @param chunkBytes approximate size of each mapped chunk; the file grows in these steps
+     * @throws IOException if the file cannot be mapped or was written with a different record size
+     */
+    public MappedArrayList(Path file, Codec<T> codec, int chunkBytes) throws IOException {
+        if (codec == null || codec.recordSize() <= 0) {
+            throw new IllegalArgumentException("Codec must have a positive record size");
+        }
+        if (chunkBytes < codec.recordSize()) {
+            throw new IllegalArgumentException("Chunk must hold at least one record: " + chunkBytes);
+        }
+
+        this.codec = codec;
+        this.recordSize = codec.recordSize();
+        this.recordsPerChunk = chunkBytes / recordSize;
+        this.chunks = new MappedByteBuffer[8];
+        this.channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        try {
+            boolean isNew = channel.size() == 0;
+            this.header = map(0, HEADER_BYTES);
+
+            if (isNew) {
+                header.putLong(MAGIC_OFFSET, MAGIC);
+                header.putInt(RECORD_SIZE_OFFSET, recordSize);
+                header.putLong(SIZE_OFFSET, 0);
+            } else {
+                if (header.getLong(MAGIC_OFFSET) != MAGIC) {
+                    throw new IOException("Not a MappedArrayList file: " + file);
+                }
+                if (header.getInt(RECORD_SIZE_OFFSET) != recordSize) {
+                    throw new IOException("Record size mismatch: file has " + header.getInt(RECORD_SIZE_OFFSET)
+                            + ", codec has " + recordSize);
+                }
+            }
+
+            this.size = header.getLong(SIZE_OFFSET);
+            ensureCapacity(size);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Get size
+    public long size() {
+        return size;
+    }
+
+    // Check if empty
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Add element to end
+    public boolean add(T element) {
+        ensureCapacity(size + 1);
+        write(size, element);
+        setSize(size + 1);
+        return true;
+    }
+
+    // Get element at index
+    public T get(long index) {
+        checkIndex(index);
+        return codec.read(chunks[chunkOf(index)], offsetOf(index));
+    }
+
+    // Set element at index
+    public T set(long index, T element) {
+        checkIndex(index);
+        T oldValue = get(index);
+        write(index, element);
+        return oldValue;
+    }
+
+    // Remove element at index; shifts every later record, so O(n - index)
+    public T remove(long index) {
+        checkIndex(index);
+        T oldValue = get(index);
+
+        byte[] record = new byte[recordSize];
+        for (long i = index + 1; i < size; i++) {
+            chunks[chunkOf(i)].get(offsetOf(i), record);
+            chunks[chunkOf(i - 1)].put(offsetOf(i - 1), record);
+        }
+        setSize(size - 1);
+
+        return oldValue;
+    }
+
+    // Clear all elements (the file keeps its mapped chunks for reuse)
+    public void clear() {
+        setSize(0);
+    }
+
+    // Write all mapped changes through to the file
+    public void flush() {
+        for (int i = 0; i < chunkCount; i++) {
+            chunks[i].force();
+        }
+        header.force();
+    }
+
+    // Flush and close the file
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+
+    private void write(long index, T element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Element cannot be null");
+        }
+        codec.write(chunks[chunkOf(index)], offsetOf(index), element);
+    }
+
+    private void setSize(long newSize) {
+        size = newSize;
+        header.putLong(SIZE_OFFSET, newSize);
+    }
+
+    private int chunkOf(long index) {
+        return (int) (index / recordsPerChunk);
+    }
+
+    private int offsetOf(long index) {
+        return (int) (index % recordsPerChunk) * recordSize;
+    }
+
+    private void checkIndex(long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    // Map enough chunks to hold minCapacity records; existing chunks are never copied
+    private void ensureCapacity(long minCapacity) {
+        long neededChunks = (minCapacity + recordsPerChunk - 1) / recordsPerChunk;
+        if (neededChunks > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Too many records: " + minCapacity);
+        }
+
+        while (chunkCount < neededChunks) {
+            if (chunkCount == chunks.length) {
+                chunks = Arrays.copyOf(chunks, chunks.length * 2);
+            }
+            long position = HEADER_BYTES + (long) chunkCount * recordsPerChunk * recordSize;
+            try {
+                chunks[chunkCount] = map(position, (long) recordsPerChunk * recordSize);
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to map chunk " + chunkCount, e);
+            }
+            chunkCount++;
+        }
+    }
+
+    private MappedByteBuffer map(long position, long length) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, position, length);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+}
@@ -0,0 +1,168 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Bounded lock-free queue for many producer and many consumer threads.
+ * Each slot carries a sequence number that says whose turn it is: a producer may
+ * fill slot i when its sequence equals the tail, and a consumer may empty it when
+ * its sequence equals head + 1. Head and tail live on separate cache lines.
+ */
+public class MpmcQueue<T> {
+    // Slots in the padded sequence array, 128 bytes apart so they never share a cache line
+    private static final int HEAD = 16;  // Next index to poll (consumers)
+    private static final int TAIL = 32;  // Next index to offer (producers)
+    private static final int SEQUENCES_LENGTH = 48;
+    // Published by fill into claimed slots it could not fill; consumers discard it
+    private static final Object SKIP = new Object();
+
+    private final AtomicReferenceArray<T> buffer;
+    private final AtomicLongArray slotSequences;
+    private final AtomicLongArray sequences;
+    private final int mask;
+
+    // Constructor with capacity (rounded up to a power of two)
+    public MpmcQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        this.buffer = new AtomicReferenceArray<>(size);
+        this.slotSequences = new AtomicLongArray(size);
+        this.sequences = new AtomicLongArray(SEQUENCES_LENGTH);
+        this.mask = size - 1;
+
+        for (int i = 0; i < size; i++) {
+            slotSequences.set(i, i);
+        }
+    }
+
+    // Get capacity
+    public int capacity() {
+        return mask + 1;
+    }
+
+    // Get size (approximate while other threads are running)
+    public int size() {
+        long head = sequences.get(HEAD);
+        long tail = sequences.get(TAIL);
+        return (int) Math.max(0, Math.min(tail - head, capacity()));
+    }
+
+    // Check if empty
+    public boolean isEmpty() {
+        return sequences.get(HEAD) >= sequences.get(TAIL);
+    }
+
+    // Add an element; returns false if the queue is full. Any thread.
+    public boolean offer(T element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Element cannot be null");
+        }
+
+        while (true) {
+            long tail = sequences.get(TAIL);
+            int index = (int) tail & mask;
+            long difference = slotSequences.get(index) - tail;
+
+            if (difference == 0) {
+                if (sequences.compareAndSet(TAIL, tail, tail + 1)) {
+                    buffer.lazySet(index, element);
+                    slotSequences.lazySet(index, tail + 1);
+                    return true;
+                }
+            } else if (difference < 0) {
+                return false; // Slot still holds an element from the previous lap: full
+            }
+            // Otherwise another producer took this slot; retry with the new tail
+        }
+    }
+
+    // Remove and return the front element, or null if empty. Any thread.
+    public T poll() {
+        while (true) {
+            long head = sequences.get(HEAD);
+            int index = (int) head & mask;
+            long difference = slotSequences.get(index) - (head + 1);
+
+            if (difference == 0) {
+                if (sequences.compareAndSet(HEAD, head, head + 1)) {
+                    T element = buffer.get(index);
+                    buffer.lazySet(index, null);
+                    slotSequences.lazySet(index, head + mask + 1);
+                    if (element != SKIP) {
+                        return element;
+                    }
+                }
+            } else if (difference < 0) {
+                return null; // Slot not filled yet: empty
+            }
+            // Otherwise another consumer took this slot (or it was a skip); retry with the new head
+        }
+    }
+
+    /**
+     * Poll up to limit elements into the consumer.
+     * @return number of elements drained
+     */
+    public int drain(Consumer<? super T> consumer, int limit) {
+        int count = 0;
+        T element;
+        while (count < limit && (element = poll()) != null) {
+            consumer.accept(element);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Offer up to limit elements taken from the supplier, claiming all free slots
+     * at the tail with one CAS. The supplier is only called for claimed slots. If it
+     * returns null (or throws), the remaining claimed slots are published as skips
+     * that consumers discard, so the queue never waits on them; a null then throws
+     * IllegalArgumentException. Never blocks. Any thread.
+     * @return number of elements added
+     */
+    @SuppressWarnings("unchecked")
+    public int fill(Supplier<? extends T> supplier, int limit) {
+        long tail;
+        int claimed;
+        while (true) {
+            tail = sequences.get(TAIL);
+            // Consumers free slots out of order, so count the free run from the tail
+            claimed = 0;
+            while (claimed < limit && slotSequences.get((int) (tail + claimed) & mask) == tail + claimed) {
+                claimed++;
+            }
+            if (claimed > 0) {
+                if (sequences.compareAndSet(TAIL, tail, tail + claimed)) {
+                    break;
+                }
+            } else if (limit <= 0 || slotSequences.get((int) tail & mask) - tail < 0) {
+                return 0; // Queue is full
+            }
+            // Otherwise another producer took the tail slot; retry with the new tail
+        }
+
+        int count = 0;
+        try {
+            for (; count < claimed; count++) {
+                T element = supplier.get();
+                if (element == null) {
+                    throw new IllegalArgumentException("Element cannot be null");
+                }
+                int index = (int) (tail + count) & mask;
+                buffer.lazySet(index, element);
+                slotSequences.lazySet(index, tail + count + 1);
+            }
+        } finally {
+            for (int i = count; i < claimed; i++) {
+                int index = (int) (tail + i) & mask;
+                buffer.lazySet(index, (T) SKIP);
+                slotSequences.lazySet(index, tail + i + 1);
+            }
+        }
+        return count;
+    }
+}
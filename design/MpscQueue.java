@@ -0,0 +1,165 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Bounded lock-free queue for many producer threads and one consumer thread.
+ * Producers claim slots by CAS on the tail and then publish the element into the
+ * slot; the consumer sees a slot as ready once its element is non-null.
+ * Head and tail live on separate cache lines.
+ */
+public class MpscQueue<T> {
+    // Slots in the padded sequence array, 128 bytes apart so they never share a cache line
+    private static final int HEAD = 16;        // Next index to poll (consumer)
+    private static final int TAIL = 32;        // Next index to claim (producers)
+    private static final int HEAD_CACHE = 48;  // Producers' last seen head
+    private static final int SEQUENCES_LENGTH = 64;
+    // Published by fill into claimed slots it could not fill; the consumer discards it
+    private static final Object SKIP = new Object();
+
+    private final AtomicReferenceArray<T> buffer;
+    private final AtomicLongArray sequences;
+    private final int mask;
+
+    // Constructor with capacity (rounded up to a power of two)
+    public MpscQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        this.buffer = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(SEQUENCES_LENGTH);
+        this.mask = size - 1;
+    }
+
+    // Get capacity
+    public int capacity() {
+        return mask + 1;
+    }
+
+    // Get size (approximate while other threads are running)
+    public int size() {
+        long head = sequences.get(HEAD);
+        long tail = sequences.get(TAIL);
+        return (int) Math.max(0, Math.min(tail - head, capacity()));
+    }
+
+    // Check if empty
+    public boolean isEmpty() {
+        return sequences.get(HEAD) == sequences.get(TAIL);
+    }
+
+    // Add an element; returns false if the queue is full. Any thread.
+    public boolean offer(T element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Element cannot be null");
+        }
+
+        long tail;
+        do {
+            tail = sequences.get(TAIL);
+            if (tail - sequences.get(HEAD_CACHE) > mask) {
+                long head = sequences.get(HEAD);
+                sequences.lazySet(HEAD_CACHE, head);
+                if (tail - head > mask) {
+                    return false; // Queue is full
+                }
+            }
+        } while (!sequences.compareAndSet(TAIL, tail, tail + 1));
+
+        buffer.lazySet((int) tail & mask, element);
+        return true;
+    }
+
+    /**
+     * Offer up to limit elements taken from the supplier, claiming all slots with one CAS.
+     * The supplier is only called for claimed slots. If it returns null (or throws),
+     * the remaining claimed slots are published as skips that the consumer discards,
+     * so the queue never waits on them; a null then throws IllegalArgumentException.
+     * Never blocks. Any thread.
+     * @return number of elements added
+     */
+    @SuppressWarnings("unchecked")
+    public int fill(Supplier<? extends T> supplier, int limit) {
+        long tail;
+        int claimed;
+        do {
+            tail = sequences.get(TAIL);
+            long free = capacity() - (tail - sequences.get(HEAD));
+            claimed = (int) Math.min(free, limit);
+            if (claimed <= 0) {
+                return 0;
+            }
+        } while (!sequences.compareAndSet(TAIL, tail, tail + claimed));
+
+        int count = 0;
+        try {
+            for (; count < claimed; count++) {
+                T element = supplier.get();
+                if (element == null) {
+                    throw new IllegalArgumentException("Element cannot be null");
+                }
+                buffer.lazySet((int) (tail + count) & mask, element);
+            }
+        } finally {
+            for (int i = count; i < claimed; i++) {
+                buffer.lazySet((int) (tail + i) & mask, (T) SKIP);
+            }
+        }
+        return count;
+    }
+
+    // Remove and return the front element, or null if empty. Consumer thread only.
+    public T poll() {
+        while (true) {
+            long head = sequences.getPlain(HEAD);
+            int index = (int) head & mask;
+            T element = buffer.get(index);
+
+            if (element == null) {
+                if (head == sequences.get(TAIL)) {
+                    return null; // Queue is empty
+                }
+                // A producer claimed the slot but has not published yet
+                do {
+                    Thread.onSpinWait();
+                    element = buffer.get(index);
+                } while (element == null);
+            }
+
+            buffer.lazySet(index, null);
+            sequences.lazySet(HEAD, head + 1);
+            if (element != SKIP) {
+                return element;
+            }
+        }
+    }
+
+    /**
+     * Poll up to limit published elements into the consumer, publishing the new head once.
+     * Stops early at a slot that is claimed but not yet published. Consumer thread only.
+     * @return number of elements drained
+     */
+    public int drain(Consumer<? super T> consumer, int limit) {
+        long head = sequences.getPlain(HEAD);
+        int count = 0;
+
+        while (count < limit) {
+            int index = (int) head & mask;
+            T element = buffer.get(index);
+            if (element == null) {
+                break;
+            }
+            buffer.lazySet(index, null);
+            head++;
+            if (element != SKIP) {
+                consumer.accept(element);
+                count++;
+            }
+        }
+
+        sequences.lazySet(HEAD, head);
+        return count;
+    }
+}
@@ -0,0 +1,191 @@
+/**
+ * Open-addressing HashMap for object keys.
+ * Same put/get/remove/containsKey contract as HashMap, but entries are stored in
+ * flat parallel key/value arrays with linear probing instead of chained Entry nodes.
+ */
+public class OpenHashMap<K, V> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+    // A null key marks an empty slot
+    private Object[] keys;
+    private Object[] values;
+    private int size;
+    private float loadFactor;
+    private int resizeThreshold;
+
+    // Constructor
+    public OpenHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    // Constructor with initial capacity (rounded up to a power of two)
+    public OpenHashMap(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative: " + initialCapacity);
+        }
+        int capacity = tableSizeFor(Math.max(initialCapacity, 2));
+        this.keys = new Object[capacity];
+        this.values = new Object[capacity];
+        this.size = 0;
+        this.loadFactor = DEFAULT_LOAD_FACTOR;
+        this.resizeThreshold = (int) (capacity * loadFactor);
+    }
+
+    // Get size
+    public int size() {
+        return size;
+    }
+
+    // Check if empty
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Spread the hash code bits and mask into the power-of-two table
+    private int getIndex(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (keys.length - 1);
+    }
+
+    // Put a key-value pair
+    public V put(K key, V value) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+
+        int mask = keys.length - 1;
+        int index = getIndex(key);
+
+        // Probe until we find the key or an empty slot
+        while (keys[index] != null) {
+            if (keys[index].equals(key)) {
+                V oldValue = valueAt(index);
+                values[index] = value;
+                return oldValue;
+            }
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = key;
+        values[index] = value;
+        size++;
+
+        if (size > resizeThreshold) {
+            resize();
+        }
+
+        return null;
+    }
+
+    // Get value for a key
+    public V get(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+
+        int index = findSlot(key);
+        return index == -1 ? null : valueAt(index);
+    }
+
+    // Remove a key-value pair
+    public V remove(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+
+        int index = findSlot(key);
+        if (index == -1) {
+            return null; // Key not found
+        }
+
+        V oldValue = valueAt(index);
+        shiftBack(index);
+        size--;
+        return oldValue;
+    }
+
+    // Check if the hash map contains a key
+    public boolean containsKey(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+        return findSlot(key) != -1;
+    }
+
+    // Clear all entries
+    public void clear() {
+        java.util.Arrays.fill(keys, null);
+        java.util.Arrays.fill(values, null);
+        size = 0;
+    }
+
+    // Find the slot holding a key, or -1 if absent
+    private int findSlot(Object key) {
+        int mask = keys.length - 1;
+        int index = getIndex(key);
+
+        while (keys[index] != null) {
+            if (keys[index].equals(key)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    // Backward-shift deletion: pull later entries of the probe run into the gap
+    // so lookups never need tombstones
+    private void shiftBack(int gap) {
+        int mask = keys.length - 1;
+        int index = (gap + 1) & mask;
+
+        while (keys[index] != null) {
+            int home = getIndex(keys[index]);
+            // Move the entry if its home slot is not in the range (gap, index]
+            if (((index - home) & mask) >= ((index - gap) & mask)) {
+                keys[gap] = keys[index];
+                values[gap] = values[index];
+                gap = index;
+            }
+            index = (index + 1) & mask;
+        }
+
+        keys[gap] = null;
+        values[gap] = null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int index) {
+        return (V) values[index];
+    }
+
+    // Resize the key and value arrays
+    private void resize() {
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        int newCapacity = oldKeys.length * 2;
+        keys = new Object[newCapacity];
+        values = new Object[newCapacity];
+        resizeThreshold = (int) (newCapacity * loadFactor);
+
+        // Reinsert directly; no duplicate check is needed
+        int mask = newCapacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int index = getIndex(oldKeys[i]);
+                while (keys[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    // Smallest power of two >= capacity
+    private static int tableSizeFor(int capacity) {
+        int n = Integer.highestOneBit(capacity - 1) << 1;
+        return n <= 0 ? 1 << 30 : n;
+    }
+}
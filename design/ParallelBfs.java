@@ -0,0 +1,291 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Level-synchronous parallel BFS over a CsrGraph that returns distances or a
+ * BFS parent tree instead of printing.
+ * Each level's frontier is split into chunks expanded on a ForkJoinPool, and
+ * visited vertices are bits in a shared bitset claimed with CAS.
+ *
+ * Direction-optimizing (Beamer et al.): on low-diameter graphs a few middle
+ * levels hold most of the vertices, and pushing every frontier edge then mostly
+ * hits vertices that are already visited. Once the frontier's edges outnumber
+ * the unexplored edges / ALPHA, levels run bottom-up instead: every unvisited
+ * vertex scans its in-edges and stops at the first parent in the frontier.
+ * When the frontier shrinks below vertexCount / BETA it switches back.
+ */
+public class ParallelBfs {
+    private static final int ALPHA = 14;
+    private static final int BETA = 24;
+    // Frontier vertices per chunk in top-down levels
+    private static final int TOP_DOWN_GRAIN = 1024;
+    // Bitset words (64 vertices each) per chunk in bottom-up levels
+    private static final int BOTTOM_UP_GRAIN = 64;
+    // Discovered vertices buffered per chunk before reserving space in the next frontier
+    private static final int BUFFER_SIZE = 256;
+
+    private final int vertexCount;
+    private final int[] offsets;
+    private final int[] targets;
+    // In-edges for bottom-up levels; the same arrays for an undirected graph
+    private final int[] inOffsets;
+    private final int[] inTargets;
+    private final ForkJoinPool pool;
+    private final boolean directionOptimizing;
+
+    // Constructor - runs on the common pool
+    public ParallelBfs(CsrGraph<?> graph) {
+        this(graph, ForkJoinPool.commonPool(), true);
+    }
+
+    /**
+     * @param directionOptimizing false to run every level top-down
+     */
+    public ParallelBfs(CsrGraph<?> graph, ForkJoinPool pool, boolean directionOptimizing) {
+        CsrGraph<?> reverse = graph.reverse();
+        this.vertexCount = graph.vertexCount();
+        this.offsets = graph.offsets();
+        this.targets = graph.targets();
+        this.inOffsets = reverse.offsets();
+        this.inTargets = reverse.targets();
+        this.pool = pool;
+        this.directionOptimizing = directionOptimizing;
+    }
+
+    /**
+     * Hop distances from source
+     * @return distance per vertex ID, -1 if unreachable
+     */
+    public int[] distances(int source) {
+        int[] distances = new int[vertexCount];
+        Arrays.fill(distances, -1);
+        search(source, null, distances);
+        return distances;
+    }
+
+    /**
+     * BFS tree from source
+     * @return parent per vertex ID; source is its own parent, -1 if unreachable
+     */
+    public int[] parents(int source) {
+        int[] parents = new int[vertexCount];
+        Arrays.fill(parents, -1);
+        search(source, parents, null);
+        return parents;
+    }
+
+    // Work on [lo, hi) of a level
+    private interface RangeTask {
+        void run(int lo, int hi);
+    }
+
+    // Per-search state shared by the chunks of a level
+    private final class Search {
+        final int[] parents;
+        final int[] distances;
+        final AtomicLongArray visited;
+        int[] frontier;
+        int[] next;
+        final AtomicInteger nextSize = new AtomicInteger();
+        // Sum of the out-degrees of the next frontier
+        final LongAdder nextEdges = new LongAdder();
+        long[] frontierBits;
+        long[] nextBits;
+        int level;
+
+        Search(int[] parents, int[] distances) {
+            this.parents = parents;
+            this.distances = distances;
+            this.visited = new AtomicLongArray(words());
+            this.frontier = new int[vertexCount];
+            this.next = new int[vertexCount];
+        }
+
+        void discover(int vertex, int parent) {
+            if (parents != null) {
+                parents[vertex] = parent;
+            }
+            if (distances != null) {
+                distances[vertex] = level + 1;
+            }
+        }
+
+        // Copy a chunk's buffered vertices into the next frontier
+        void flush(int[] buffer, int count) {
+            int at = nextSize.getAndAdd(count);
+            System.arraycopy(buffer, 0, next, at, count);
+        }
+
+        // Push: each frontier vertex claims its unvisited out-neighbors
+        void topDown(int lo, int hi) {
+            int[] buffer = new int[BUFFER_SIZE];
+            int count = 0;
+            long edges = 0;
+            for (int i = lo; i < hi; i++) {
+                int vertex = frontier[i];
+                for (int edge = offsets[vertex], end = offsets[vertex + 1]; edge < end; edge++) {
+                    int neighbor = targets[edge];
+                    if (claim(neighbor)) {
+                        discover(neighbor, vertex);
+                        edges += offsets[neighbor + 1] - offsets[neighbor];
+                        buffer[count++] = neighbor;
+                        if (count == BUFFER_SIZE) {
+                            flush(buffer, count);
+                            count = 0;
+                        }
+                    }
+                }
+            }
+            flush(buffer, count);
+            nextEdges.add(edges);
+        }
+
+        // Set a vertex's visited bit; true if this call set it
+        boolean claim(int vertex) {
+            int word = vertex >>> 6;
+            long bit = 1L << vertex;
+            long bits = visited.get(word);
+            while ((bits & bit) == 0) {
+                if (visited.compareAndSet(word, bits, bits | bit)) {
+                    return true;
+                }
+                bits = visited.get(word);
+            }
+            return false;
+        }
+
+        // Pull: each unvisited vertex looks for a parent in the frontier; chunks own whole words
+        void bottomUp(int lo, int hi) {
+            int[] buffer = new int[BUFFER_SIZE];
+            int count = 0;
+            long edges = 0;
+            for (int word = lo; word < hi; word++) {
+                long seen = visited.get(word);
+                long unvisited = ~seen & validBits(word);
+                long found = 0;
+                while (unvisited != 0) {
+                    int bit = Long.numberOfTrailingZeros(unvisited);
+                    unvisited &= unvisited - 1;
+                    int vertex = word << 6 | bit;
+                    for (int edge = inOffsets[vertex], end = inOffsets[vertex + 1]; edge < end; edge++) {
+                        int parent = inTargets[edge];
+                        if ((frontierBits[parent >>> 6] & 1L << parent) != 0) {
+                            discover(vertex, parent);
+                            edges += offsets[vertex + 1] - offsets[vertex];
+                            found |= 1L << bit;
+                            buffer[count++] = vertex;
+                            if (count == BUFFER_SIZE) {
+                                flush(buffer, count);
+                                count = 0;
+                            }
+                            break;
+                        }
+                    }
+                }
+                nextBits[word] = found;
+                if (found != 0) {
+                    visited.set(word, seen | found);
+                }
+            }
+            flush(buffer, count);
+            nextEdges.add(edges);
+        }
+    }
+
+    private void search(int source, int[] parents, int[] distances) {
+        if (source < 0 || source >= vertexCount) {
+            throw new IndexOutOfBoundsException("Vertex: " + source + ", Vertex count: " + vertexCount);
+        }
+        Search search = new Search(parents, distances);
+        search.claim(source);
+        if (parents != null) {
+            parents[source] = source;
+        }
+        if (distances != null) {
+            distances[source] = 0;
+        }
+        search.frontier[0] = source;
+        int frontierSize = 1;
+        long frontierEdges = offsets[source + 1] - offsets[source];
+        long unexploredEdges = targets.length - frontierEdges;
+        boolean bottomUp = false;
+        boolean growing = true;
+
+        while (frontierSize > 0) {
+            if (directionOptimizing) {
+                if (!bottomUp && frontierEdges > unexploredEdges / ALPHA) {
+                    bottomUp = true;
+                    search.frontierBits = toBits(search.frontier, frontierSize, search.frontierBits);
+                    if (search.nextBits == null) {
+                        search.nextBits = new long[words()];
+                    }
+                } else if (bottomUp && !growing && frontierSize < vertexCount / BETA) {
+                    bottomUp = false;
+                }
+            }
+
+            search.nextSize.set(0);
+            search.nextEdges.reset();
+            if (bottomUp) {
+                forEachRange(words(), BOTTOM_UP_GRAIN, search::bottomUp);
+                long[] bits = search.frontierBits;
+                search.frontierBits = search.nextBits;
+                search.nextBits = bits;
+            } else {
+                forEachRange(frontierSize, TOP_DOWN_GRAIN, search::topDown);
+            }
+
+            int[] vertices = search.frontier;
+            search.frontier = search.next;
+            search.next = vertices;
+            growing = search.nextSize.get() > frontierSize;
+            frontierSize = search.nextSize.get();
+            frontierEdges = search.nextEdges.sum();
+            unexploredEdges -= frontierEdges;
+            search.level++;
+        }
+    }
+
+    // Bitset of a frontier queue, reusing bits when given
+    private long[] toBits(int[] frontier, int size, long[] bits) {
+        if (bits == null) {
+            bits = new long[words()];
+        } else {
+            Arrays.fill(bits, 0L);
+        }
+        for (int i = 0; i < size; i++) {
+            bits[frontier[i] >>> 6] |= 1L << frontier[i];
+        }
+        return bits;
+    }
+
+    private int words() {
+        return (vertexCount + 63) >>> 6;
+    }
+
+    // Mask of the vertex bits that exist in a word (only the last word can be partial)
+    private long validBits(int word) {
+        int remaining = vertexCount - (word << 6);
+        return remaining >= 64 ? -1L : (1L << remaining) - 1;
+    }
+
+    // Split [0, count) into chunks of at least grain and run them on the pool; small levels run inline
+    private void forEachRange(int count, int grain, RangeTask task) {
+        int chunks = (int) Math.min((count + (long) grain - 1) / grain, pool.getParallelism() * 4L);
+        if (chunks <= 1) {
+            task.run(0, count);
+            return;
+        }
+        ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[chunks];
+        for (int i = 0; i < chunks; i++) {
+            int lo = (int) ((long) count * i / chunks);
+            int hi = (int) ((long) count * (i + 1) / chunks);
+            tasks[i] = ForkJoinTask.adapt(() -> task.run(lo, hi));
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+    }
+}
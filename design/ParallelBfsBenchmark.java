@@ -0,0 +1,134 @@
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * BFS benchmark on a synthetic RMAT (Graph500-style) graph: 2^scale vertices,
+ * 16 * 2^scale undirected edges with a skewed, low-diameter degree distribution.
+ * Compares the sequential CsrGraph.bfs with ParallelBfs top-down only and
+ * direction-optimizing, and reports millions of traversed edges per second.
+ */
+public class ParallelBfsBenchmark {
+    private static final int DEFAULT_SCALE = 20;
+    private static final int EDGE_FACTOR = 16;
+    private static final int SOURCES = 8;
+    // RMAT quadrant probabilities (the remaining 0.05 is the bottom-right quadrant)
+    private static final double A = 0.57;
+    private static final double B = 0.19;
+    private static final double C = 0.19;
+
+    private static volatile int sink;
+
+    public static void main(String[] args) {
+        int scale = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_SCALE;
+        int threads = args.length > 1
+                ? Integer.parseInt(args[1])
+                : Runtime.getRuntime().availableProcessors();
+
+        CsrGraph<Integer> graph = rmat(scale, EDGE_FACTOR, new Random(42));
+        System.out.println("RMAT scale " + scale + ": " + graph.vertexCount() + " vertices, "
+                + graph.edgeCount() + " stored edges, " + threads + " thread(s)");
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        ParallelBfs topDown = new ParallelBfs(graph, pool, false);
+        ParallelBfs directionOptimizing = new ParallelBfs(graph, pool, true);
+        int[] sources = sources(graph, new Random(7));
+
+        print("CsrGraph.bfs (sequential)", run(graph, sources, source -> graph.bfs(source).length));
+        print("ParallelBfs top-down", run(graph, sources, source -> count(topDown.distances(source))));
+        print("ParallelBfs direction-opt", run(graph, sources, source -> count(directionOptimizing.distances(source))));
+        pool.shutdown();
+    }
+
+    private interface Bfs {
+        int reached(int source);
+    }
+
+    private static void print(String label, double mteps) {
+        System.out.printf("  %-28s %8.1f MTEPS%n", label, mteps);
+    }
+
+    // Warm up once, then time a BFS from every source; returns millions of edges traversed per second
+    private static double run(CsrGraph<Integer> graph, int[] sources, Bfs bfs) {
+        sink = bfs.reached(sources[0]);
+        long edges = 0;
+        long elapsed = 0;
+        for (int source : sources) {
+            long start = System.nanoTime();
+            int reached = bfs.reached(source);
+            elapsed += System.nanoTime() - start;
+            sink = reached;
+            // Every stored edge of the reached component is scanned by a top-down BFS
+            edges += componentEdges(graph, source);
+        }
+        return edges / (elapsed / 1e9) / 1e6;
+    }
+
+    private static long componentEdges(CsrGraph<Integer> graph, int source) {
+        long edges = 0;
+        for (int vertex : graph.bfs(source)) {
+            edges += graph.degree(vertex);
+        }
+        return edges;
+    }
+
+    private static int count(int[] distances) {
+        int reached = 0;
+        for (int distance : distances) {
+            if (distance >= 0) {
+                reached++;
+            }
+        }
+        return reached;
+    }
+
+    // Random sources with at least one edge, as Graph500 picks them
+    private static int[] sources(CsrGraph<Integer> graph, Random random) {
+        int[] sources = new int[SOURCES];
+        for (int i = 0; i < SOURCES; i++) {
+            int source;
+            do {
+                source = random.nextInt(graph.vertexCount());
+            } while (graph.degree(source) == 0);
+            sources[i] = source;
+        }
+        return sources;
+    }
+
+    // Each edge picks one quadrant of the adjacency matrix per bit of the vertex IDs
+    private static CsrGraph<Integer> rmat(int scale, int edgeFactor, Random random) {
+        int vertexCount = 1 << scale;
+        int edgeCount = edgeFactor * vertexCount;
+        int[] sources = new int[edgeCount];
+        int[] targets = new int[edgeCount];
+        for (int i = 0; i < edgeCount; i++) {
+            int source = 0;
+            int target = 0;
+            for (int bit = 0; bit < scale; bit++) {
+                double p = random.nextDouble();
+                if (p >= A + B + C) {
+                    source |= 1 << bit;
+                    target |= 1 << bit;
+                } else if (p >= A + B) {
+                    source |= 1 << bit;
+                } else if (p >= A) {
+                    target |= 1 << bit;
+                }
+            }
+            sources[i] = source;
+            targets[i] = target;
+        }
+
+        // Shuffle IDs so high-degree vertices are not clustered at low IDs
+        int[] permutation = new int[vertexCount];
+        for (int i = 0; i < vertexCount; i++) {
+            int j = random.nextInt(i + 1);
+            permutation[i] = permutation[j];
+            permutation[j] = i;
+        }
+        for (int i = 0; i < edgeCount; i++) {
+            sources[i] = permutation[sources[i]];
+            targets[i] = permutation[targets[i]];
+        }
+        return CsrGraph.ofEdges(vertexCount, sources, targets, null, false);
+    }
+}
@@ -0,0 +1,281 @@
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Persistent (immutable) version of BinarySearchTree.
+ * insert and delete never modify the tree: they copy only the O(log n) nodes on
+ * the path to the change and return a new tree that shares every other node with
+ * the old one. Old versions stay valid, so a reader holding a tree sees a stable
+ * snapshot without locks while writers publish new versions.
+ *
+ * Kept balanced as an AVL tree. For batch updates, toBuilder() returns a
+ * transient Builder that edits nodes it created in place instead of copying
+ * them again, and build() freezes the result.
+ */
+public class PersistentBinarySearchTree<T extends Comparable<T>> implements Iterable<T> {
+    // Node class; only nodes whose owner is a live Builder are ever modified
+    private static final class Node<T> {
+        T data;
+        Node<T> left;
+        Node<T> right;
+        int height;
+        int size;
+        Object owner;
+
+        Node(T data, Node<T> left, Node<T> right, Object owner) {
+            this.data = data;
+            this.left = left;
+            this.right = right;
+            this.owner = owner;
+            update();
+        }
+
+        void update() {
+            height = 1 + Math.max(height(left), height(right));
+            size = 1 + size(left) + size(right);
+        }
+    }
+
+    private final Node<T> root;
+
+    // Constructor - creates an empty tree
+    public PersistentBinarySearchTree() {
+        this(null);
+    }
+
+    private PersistentBinarySearchTree(Node<T> root) {
+        this.root = root;
+    }
+
+    // Get size
+    public int size() {
+        return size(root);
+    }
+
+    // Check if empty
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    // Search for a value
+    public boolean search(T data) {
+        Node<T> current = root;
+        while (current != null) {
+            int compareResult = data.compareTo(current.data);
+            if (compareResult == 0) {
+                return true;
+            }
+            current = compareResult < 0 ? current.left : current.right;
+        }
+        return false;
+    }
+
+    // Return a tree that also contains data; this tree is unchanged
+    public PersistentBinarySearchTree<T> insert(T data) {
+        checkNotNull(data);
+        Node<T> newRoot = insert(root, data, null);
+        return newRoot == root ? this : new PersistentBinarySearchTree<>(newRoot);
+    }
+
+    // Return a tree without data; this tree is unchanged
+    public PersistentBinarySearchTree<T> delete(T data) {
+        checkNotNull(data);
+        Node<T> newRoot = delete(root, data, null);
+        return newRoot == root ? this : new PersistentBinarySearchTree<>(newRoot);
+    }
+
+    // Transient copy for batch updates; this tree is unchanged
+    public Builder<T> toBuilder() {
+        return new Builder<>(root);
+    }
+
+    /**
+     * Transient tree for batch updates. Nodes it creates are tagged with the
+     * builder, and later updates modify them in place; nodes shared with
+     * persistent trees are still copied. Not thread-safe, and unusable after build().
+     */
+    public static final class Builder<T extends Comparable<T>> {
+        private Node<T> root;
+        private Object owner = new Object();
+
+        private Builder(Node<T> root) {
+            this.root = root;
+        }
+
+        public Builder<T> insert(T data) {
+            checkNotNull(data);
+            root = PersistentBinarySearchTree.insert(root, data, checkOwner());
+            return this;
+        }
+
+        public Builder<T> delete(T data) {
+            checkNotNull(data);
+            root = PersistentBinarySearchTree.delete(root, data, checkOwner());
+            return this;
+        }
+
+        public int size() {
+            return PersistentBinarySearchTree.size(root);
+        }
+
+        // Freeze the nodes and return them as a persistent tree
+        public PersistentBinarySearchTree<T> build() {
+            checkOwner();
+            owner = null;
+            return new PersistentBinarySearchTree<>(root);
+        }
+
+        private Object checkOwner() {
+            if (owner == null) {
+                throw new IllegalStateException("Builder already built");
+            }
+            return owner;
+        }
+    }
+
+    // Iterate all values in ascending order
+    @Override
+    public Iterator<T> iterator() {
+        ArrayDeque<Node<T>> stack = new ArrayDeque<>();
+        pushLeft(stack, root);
+        return new Iterator<T>() {
+            @Override
+            public boolean hasNext() {
+                return !stack.isEmpty();
+            }
+
+            @Override
+            public T next() {
+                if (stack.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                Node<T> node = stack.pop();
+                pushLeft(stack, node.right);
+                return node.data;
+            }
+        };
+    }
+
+    private static <T> void pushLeft(ArrayDeque<Node<T>> stack, Node<T> node) {
+        while (node != null) {
+            stack.push(node);
+            node = node.left;
+        }
+    }
+
+    // In-order traversal
+    public void inOrder() {
+        System.out.print("In-order: ");
+        for (T data : this) {
+            System.out.print(data + " ");
+        }
+        System.out.println();
+    }
+
+    private static void checkNotNull(Object data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Value cannot be null");
+        }
+    }
+
+    private static int height(Node<?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    // Node with new children: reused in place if owner edits it, otherwise a fresh copy
+    private static <T> Node<T> with(Node<T> node, T data, Node<T> left, Node<T> right, Object owner) {
+        if (owner != null && node.owner == owner) {
+            node.data = data;
+            node.left = left;
+            node.right = right;
+            node.update();
+            return node;
+        }
+        return new Node<>(data, left, right, owner);
+    }
+
+    // True if a subtree was left untouched (a builder may edit it in place, but then its size changes)
+    private static boolean unchanged(Node<?> before, int sizeBefore, Node<?> after) {
+        return before == after && sizeBefore == size(after);
+    }
+
+    // Path-copying insert; returns node itself if data was already present
+    private static <T extends Comparable<T>> Node<T> insert(Node<T> node, T data, Object owner) {
+        if (node == null) {
+            return new Node<>(data, null, null, owner);
+        }
+        int compareResult = data.compareTo(node.data);
+        if (compareResult < 0) {
+            int sizeBefore = size(node.left);
+            Node<T> left = insert(node.left, data, owner);
+            return unchanged(node.left, sizeBefore, left) ? node : balance(node, node.data, left, node.right, owner);
+        } else if (compareResult > 0) {
+            int sizeBefore = size(node.right);
+            Node<T> right = insert(node.right, data, owner);
+            return unchanged(node.right, sizeBefore, right) ? node : balance(node, node.data, node.left, right, owner);
+        }
+        return node;
+    }
+
+    // Path-copying delete; returns node itself if data was absent
+    private static <T extends Comparable<T>> Node<T> delete(Node<T> node, T data, Object owner) {
+        if (node == null) {
+            return null;
+        }
+        int compareResult = data.compareTo(node.data);
+        if (compareResult < 0) {
+            int sizeBefore = size(node.left);
+            Node<T> left = delete(node.left, data, owner);
+            return unchanged(node.left, sizeBefore, left) ? node : balance(node, node.data, left, node.right, owner);
+        } else if (compareResult > 0) {
+            int sizeBefore = size(node.right);
+            Node<T> right = delete(node.right, data, owner);
+            return unchanged(node.right, sizeBefore, right) ? node : balance(node, node.data, node.left, right, owner);
+        }
+
+        // Node with only one child or no child
+        if (node.left == null) {
+            return node.right;
+        } else if (node.right == null) {
+            return node.left;
+        }
+
+        // Node with two children: take the inorder successor's value, delete it from the right
+        Node<T> successor = node.right;
+        while (successor.left != null) {
+            successor = successor.left;
+        }
+        Node<T> right = delete(node.right, successor.data, owner);
+        return balance(node, successor.data, node.left, right, owner);
+    }
+
+    // Build (or edit) a node from subtrees whose heights differ by at most two, rotating if needed
+    private static <T> Node<T> balance(Node<T> node, T data, Node<T> left, Node<T> right, Object owner) {
+        int balanceFactor = height(left) - height(right);
+        if (balanceFactor > 1) {
+            if (height(left.left) < height(left.right)) {
+                // Left-right case
+                Node<T> pivot = left.right;
+                return new Node<>(pivot.data,
+                        with(left, left.data, left.left, pivot.left, owner),
+                        with(node, data, pivot.right, right, owner), owner);
+            }
+            return with(left, left.data, left.left, with(node, data, left.right, right, owner), owner);
+        } else if (balanceFactor < -1) {
+            if (height(right.right) < height(right.left)) {
+                // Right-left case
+                Node<T> pivot = right.left;
+                return new Node<>(pivot.data,
+                        with(node, data, left, pivot.left, owner),
+                        with(right, right.data, pivot.right, right.right, owner), owner);
+            }
+            return with(right, right.data, with(node, data, left, right.left, owner), right.right, owner);
+        }
+        return with(node, data, left, right, owner);
+    }
+}
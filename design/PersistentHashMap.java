@@ -0,0 +1,444 @@
+import java.util.function.BiConsumer;
+
+/**
+ * Persistent (immutable) version of HashMap, as a hash array mapped trie (HAMT).
+ * The hash is consumed 5 bits per level; each node keeps a 32-bit bitmap of the
+ * slots in use and a dense array holding only those slots, so put and remove copy
+ * just the O(log32 n) nodes on the path and share everything else with the old map.
+ * Old versions stay valid, so readers get lock-free snapshots.
+ *
+ * For batch updates, toBuilder() returns a transient Builder that edits nodes it
+ * created in place instead of copying them again, and build() freezes the result.
+ */
+public class PersistentHashMap<K, V> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final Object NOT_FOUND = new Object();
+
+    // Reports what an update did, so size can be tracked without a second lookup
+    private static final class Change {
+        boolean added;
+        boolean removed;
+    }
+
+    // Trie node; only nodes whose owner is a live Builder are ever modified
+    private abstract static class Node {
+        Object owner;
+
+        abstract Object find(int shift, int hash, Object key);
+
+        abstract Node put(Object owner, int shift, int hash, Object key, Object value, Change change);
+
+        // Returns null once the node is empty
+        abstract Node remove(Object owner, int shift, int hash, Object key, Change change);
+
+        abstract void forEach(BiConsumer<Object, Object> action);
+    }
+
+    /**
+     * Branch node. array holds key/value pairs for the set bits in order; a pair
+     * with a null key holds a child node in its value slot.
+     */
+    private static final class BitmapNode extends Node {
+        int bitmap;
+        Object[] array;
+
+        BitmapNode(Object owner, int bitmap, Object[] array) {
+            this.owner = owner;
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        // This node if owner may edit it in place, otherwise a copy tagged with owner
+        private BitmapNode editable(Object owner) {
+            if (owner != null && this.owner == owner) {
+                return this;
+            }
+            return new BitmapNode(owner, bitmap, array.clone());
+        }
+
+        // Node with a new bitmap and array: this one if owner may edit it in place, otherwise a new one
+        private BitmapNode with(Object owner, int bitmap, Object[] array) {
+            if (owner != null && this.owner == owner) {
+                this.bitmap = bitmap;
+                this.array = array;
+                return this;
+            }
+            return new BitmapNode(owner, bitmap, array);
+        }
+
+        // Position of the bit's pair in the dense array
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key) {
+            int bit = bitFor(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return NOT_FOUND;
+            }
+            int i = 2 * index(bit);
+            Object k = array[i];
+            if (k == null) {
+                return ((Node) array[i + 1]).find(shift + BITS, hash, key);
+            }
+            return key.equals(k) ? array[i + 1] : NOT_FOUND;
+        }
+
+        @Override
+        Node put(Object owner, int shift, int hash, Object key, Object value, Change change) {
+            int bit = bitFor(hash, shift);
+            int i = 2 * index(bit);
+
+            if ((bitmap & bit) == 0) {
+                // Free slot: insert a pair into the dense array
+                int length = 2 * Integer.bitCount(bitmap);
+                Object[] newArray = new Object[length + 2];
+                System.arraycopy(array, 0, newArray, 0, i);
+                newArray[i] = key;
+                newArray[i + 1] = value;
+                System.arraycopy(array, i, newArray, i + 2, length - i);
+                change.added = true;
+                return with(owner, bitmap | bit, newArray);
+            }
+
+            Object k = array[i];
+            Object v = array[i + 1];
+            Object newValue;
+            boolean pushDown = false;
+            if (k == null) {
+                Node child = ((Node) v).put(owner, shift + BITS, hash, key, value, change);
+                if (child == v) {
+                    return this;
+                }
+                newValue = child;
+            } else if (key.equals(k)) {
+                if (v == value) {
+                    return this;
+                }
+                newValue = value;
+            } else {
+                // Two keys share this slot: push both one level down
+                change.added = true;
+                newValue = pair(owner, shift + BITS, k, v, hash, key, value);
+                pushDown = true;
+            }
+
+            BitmapNode node = editable(owner);
+            if (pushDown) {
+                node.array[i] = null;
+            }
+            node.array[i + 1] = newValue;
+            return node;
+        }
+
+        @Override
+        Node remove(Object owner, int shift, int hash, Object key, Change change) {
+            int bit = bitFor(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            int i = 2 * index(bit);
+            Object k = array[i];
+            Object v = array[i + 1];
+
+            if (k == null) {
+                Node child = ((Node) v).remove(owner, shift + BITS, hash, key, change);
+                if (child == v) {
+                    return this;
+                }
+                if (child != null) {
+                    BitmapNode node = editable(owner);
+                    node.array[i + 1] = child;
+                    return node;
+                }
+            } else if (key.equals(k)) {
+                change.removed = true;
+            } else {
+                return this;
+            }
+
+            // Drop the pair at i
+            if (bitmap == bit) {
+                return null;
+            }
+            int length = 2 * Integer.bitCount(bitmap);
+            Object[] newArray = new Object[length - 2];
+            System.arraycopy(array, 0, newArray, 0, i);
+            System.arraycopy(array, i + 2, newArray, i, length - i - 2);
+            return with(owner, bitmap ^ bit, newArray);
+        }
+
+        @Override
+        void forEach(BiConsumer<Object, Object> action) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (array[i] == null) {
+                    ((Node) array[i + 1]).forEach(action);
+                } else {
+                    action.accept(array[i], array[i + 1]);
+                }
+            }
+        }
+    }
+
+    // Keys whose full 32-bit hashes are equal, kept as a flat key/value array
+    private static final class CollisionNode extends Node {
+        final int hash;
+        Object[] array;
+
+        CollisionNode(Object owner, int hash, Object[] array) {
+            this.owner = owner;
+            this.hash = hash;
+            this.array = array;
+        }
+
+        private CollisionNode editable(Object owner) {
+            if (owner != null && this.owner == owner) {
+                return this;
+            }
+            return new CollisionNode(owner, hash, array.clone());
+        }
+
+        private CollisionNode with(Object owner, Object[] array) {
+            if (owner != null && this.owner == owner) {
+                this.array = array;
+                return this;
+            }
+            return new CollisionNode(owner, hash, array);
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key) {
+            int i = indexOf(key);
+            return i < 0 ? NOT_FOUND : array[i + 1];
+        }
+
+        @Override
+        Node put(Object owner, int shift, int hash, Object key, Object value, Change change) {
+            if (hash != this.hash) {
+                // A different hash reached this level: nest this node under a branch
+                BitmapNode branch = new BitmapNode(owner, bitFor(this.hash, shift), new Object[] {null, this});
+                return branch.put(owner, shift, hash, key, value, change);
+            }
+
+            int i = indexOf(key);
+            if (i >= 0) {
+                if (array[i + 1] == value) {
+                    return this;
+                }
+                CollisionNode node = editable(owner);
+                node.array[i + 1] = value;
+                return node;
+            }
+
+            Object[] newArray = new Object[array.length + 2];
+            System.arraycopy(array, 0, newArray, 0, array.length);
+            newArray[array.length] = key;
+            newArray[array.length + 1] = value;
+            change.added = true;
+            return with(owner, newArray);
+        }
+
+        @Override
+        Node remove(Object owner, int shift, int hash, Object key, Change change) {
+            int i = indexOf(key);
+            if (i < 0) {
+                return this;
+            }
+            change.removed = true;
+            if (array.length == 2) {
+                return null;
+            }
+
+            Object[] newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, i);
+            System.arraycopy(array, i + 2, newArray, i, array.length - i - 2);
+            return with(owner, newArray);
+        }
+
+        @Override
+        void forEach(BiConsumer<Object, Object> action) {
+            for (int i = 0; i < array.length; i += 2) {
+                action.accept(array[i], array[i + 1]);
+            }
+        }
+    }
+
+    private final Node root;
+    private final int size;
+
+    // Constructor - creates an empty map
+    public PersistentHashMap() {
+        this(null, 0);
+    }
+
+    private PersistentHashMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    // Get size
+    public int size() {
+        return size;
+    }
+
+    // Check if empty
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Get value for key, or null if absent
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        Object value = find(root, key);
+        return value == NOT_FOUND ? null : (V) value;
+    }
+
+    // Check if key exists
+    public boolean containsKey(K key) {
+        return find(root, key) != NOT_FOUND;
+    }
+
+    // Return a map that also maps key to value; this map is unchanged
+    public PersistentHashMap<K, V> put(K key, V value) {
+        Change change = new Change();
+        Node newRoot = put(root, null, key, value, change);
+        return newRoot == root ? this : new PersistentHashMap<>(newRoot, change.added ? size + 1 : size);
+    }
+
+    // Return a map without key; this map is unchanged
+    public PersistentHashMap<K, V> remove(K key) {
+        Change change = new Change();
+        Node newRoot = remove(root, null, key, change);
+        return newRoot == root ? this : new PersistentHashMap<>(newRoot, size - 1);
+    }
+
+    // Visit every entry (in hash order)
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        if (root != null) {
+            root.forEach((key, value) -> action.accept((K) key, (V) value));
+        }
+    }
+
+    // Transient copy for batch updates; this map is unchanged
+    public Builder<K, V> toBuilder() {
+        return new Builder<>(root, size);
+    }
+
+    /**
+     * Transient map for batch updates. Nodes it creates are tagged with the
+     * builder, and later updates modify them in place; nodes shared with
+     * persistent maps are still copied. Not thread-safe, and unusable after build().
+     */
+    public static final class Builder<K, V> {
+        private Node root;
+        private int size;
+        private Object owner = new Object();
+
+        private Builder(Node root, int size) {
+            this.root = root;
+            this.size = size;
+        }
+
+        public Builder<K, V> put(K key, V value) {
+            Change change = new Change();
+            root = PersistentHashMap.put(root, checkOwner(), key, value, change);
+            if (change.added) {
+                size++;
+            }
+            return this;
+        }
+
+        public Builder<K, V> remove(K key) {
+            Change change = new Change();
+            root = PersistentHashMap.remove(root, checkOwner(), key, change);
+            if (change.removed) {
+                size--;
+            }
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        public V get(K key) {
+            Object value = find(root, key);
+            return value == NOT_FOUND ? null : (V) value;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        // Freeze the nodes and return them as a persistent map
+        public PersistentHashMap<K, V> build() {
+            checkOwner();
+            owner = null;
+            return new PersistentHashMap<>(root, size);
+        }
+
+        private Object checkOwner() {
+            if (owner == null) {
+                throw new IllegalStateException("Builder already built");
+            }
+            return owner;
+        }
+    }
+
+    // Same mixing as HashMap, so both spread keys alike
+    private static int hash(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int bitFor(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    private static Object find(Node root, Object key) {
+        checkKey(key);
+        return root == null ? NOT_FOUND : root.find(0, hash(key), key);
+    }
+
+    private static Node put(Node root, Object owner, Object key, Object value, Change change) {
+        checkKey(key);
+        int hash = hash(key);
+        if (root == null) {
+            change.added = true;
+            return new BitmapNode(owner, bitFor(hash, 0), new Object[] {key, value});
+        }
+        return root.put(owner, 0, hash, key, value, change);
+    }
+
+    private static Node remove(Node root, Object owner, Object key, Change change) {
+        checkKey(key);
+        return root == null ? null : root.remove(owner, 0, hash(key), key, change);
+    }
+
+    // Node holding two entries that collided at the level above
+    private static Node pair(Object owner, int shift, Object key1, Object value1, int hash2, Object key2, Object value2) {
+        int hash1 = hash(key1);
+        if (hash1 == hash2) {
+            return new CollisionNode(owner, hash1, new Object[] {key1, value1, key2, value2});
+        }
+        // Distinct hashes always split by shift 30, where the last two bits differ
+        Change ignored = new Change();
+        return new BitmapNode(owner, bitFor(hash1, shift), new Object[] {key1, value1})
+                .put(owner, shift, hash2, key2, value2, ignored);
+    }
+
+    private static void checkKey(Object key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+    }
+}
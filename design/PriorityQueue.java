@@ -1,12 +1,22 @@
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Comparator;
 
 /**
  * PriorityQueue implementation that can function as either MinHeap or MaxHeap
- * based on the provided comparator
+ * based on the provided comparator.
+ *
+ * Stored as a d-ary heap (4-ary by default) in a raw array. A wider heap is
+ * shallower, so poll does fewer levels of cache-missing work, and sifting moves a
+ * "hole" down or up the tree instead of swapping, writing each element only once.
  */
 public class PriorityQueue<T extends Comparable<T>> {
-    private ArrayList<T> heap;
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int DEFAULT_ARITY = 4;
+
+    private Object[] heap;
+    private int size;
+    private final int arity;
     private Comparator<T> comparator;
     private boolean isMinHeap;
     
@@ -14,9 +24,7 @@ public class PriorityQueue<T extends Comparable<T>> {
      * Default constructor - creates a min heap
      */
     public PriorityQueue() {
-        this.heap = new ArrayList<>();
-        this.isMinHeap = true;
-        this.comparator = Comparator.naturalOrder(); // For min heap
+        this(true);
     }
     
     /**
@@ -24,11 +32,11 @@ public class PriorityQueue<T extends Comparable<T>> {
      * @param isMinHeap true for min heap, false for max heap
      */
     public PriorityQueue(boolean isMinHeap) {
-        this.heap = new ArrayList<>();
+        this(isMinHeap ? 
+                Comparator.<T>naturalOrder() : // For min heap 
+                Comparator.<T>reverseOrder(),  // For max heap
+                DEFAULT_ARITY);
         this.isMinHeap = isMinHeap;
-        this.comparator = isMinHeap ? 
-                Comparator.naturalOrder() : // For min heap 
-                Comparator.reverseOrder();  // For max heap
     }
     
     /**
@@ -36,18 +44,54 @@ public class PriorityQueue<T extends Comparable<T>> {
      * @param comparator the comparator to determine ordering
      */
     public PriorityQueue(Comparator<T> comparator) {
-        this.heap = new ArrayList<>();
+        this(comparator, DEFAULT_ARITY);
+    }
+    
+    /**
+     * Constructor with custom comparator and heap arity
+     * @param comparator the comparator to determine ordering
+     * @param arity number of children per node (2 for a binary heap)
+     */
+    public PriorityQueue(Comparator<T> comparator, int arity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("Arity must be at least 2: " + arity);
+        }
+        this.heap = new Object[DEFAULT_CAPACITY];
+        this.size = 0;
+        this.arity = arity;
         this.comparator = comparator;
         // Based on the logic of the comparator, it could be either min or max heap
         this.isMinHeap = true; // This flag is less relevant when a custom comparator is used
     }
     
+    /**
+     * Build a min heap from a collection in O(n)
+     * @param elements the elements to heapify
+     * @return a new priority queue holding the elements
+     */
+    public static <T extends Comparable<T>> PriorityQueue<T> heapify(Collection<? extends T> elements) {
+        return heapify(elements, Comparator.naturalOrder());
+    }
+    
+    /**
+     * Build a heap ordered by the comparator from a collection in O(n)
+     * @param elements the elements to heapify
+     * @param comparator the comparator to determine ordering
+     * @return a new priority queue holding the elements
+     */
+    public static <T extends Comparable<T>> PriorityQueue<T> heapify(Collection<? extends T> elements,
+                                                                      Comparator<T> comparator) {
+        PriorityQueue<T> queue = new PriorityQueue<>(comparator);
+        queue.addAll(elements);
+        return queue;
+    }
+    
     /**
      * Get the current size of the heap
      * @return number of elements in the heap
      */
     public int size() {
-        return heap.size();
+        return size;
     }
     
     /**
@@ -55,37 +99,26 @@ public class PriorityQueue<T extends Comparable<T>> {
      * @return true if the heap is empty, false otherwise
      */
     public boolean isEmpty() {
-        return heap.isEmpty();
+        return size == 0;
     }
     
     /**
      * Get the index of the parent node
      */
     private int parent(int index) {
-        return (index - 1) / 2;
+        return (index - 1) / arity;
     }
     
     /**
-     * Get the index of the left child
+     * Get the index of the first child
      */
-    private int leftChild(int index) {
-        return 2 * index + 1;
+    private int firstChild(int index) {
+        return arity * index + 1;
     }
     
-    /**
-     * Get the index of the right child
-     */
-    private int rightChild(int index) {
-        return 2 * index + 2;
-    }
-    
-    /**
-     * Swap two elements in the heap
-     */
-    private void swap(int i, int j) {
-        T temp = heap.get(i);
-        heap.set(i, heap.get(j));
-        heap.set(j, temp);
+    @SuppressWarnings("unchecked")
+    private T elementAt(int index) {
+        return (T) heap[index];
     }
     
     /**
@@ -93,19 +126,8 @@ public class PriorityQueue<T extends Comparable<T>> {
      * @param element the element to insert
      */
     public void add(T element) {
-        heap.add(element);
-        int current = heap.size() - 1;
-        
-        // Heapify up
-        while (current > 0) {
-            int parentIdx = parent(current);
-            // Compare based on the comparator
-            if (comparator.compare(heap.get(current), heap.get(parentIdx)) >= 0) {
-                break;
-            }
-            swap(current, parentIdx);
-            current = parentIdx;
-        }
+        ensureCapacity(size + 1);
+        siftUp(size++, element);
     }
     
     /**
@@ -117,31 +139,80 @@ public class PriorityQueue<T extends Comparable<T>> {
     }
     
     /**
-     * Heapify down from the given index
+     * Add all elements of a collection. When the batch is at least as large as
+     * the current heap, the whole array is rebuilt bottom-up in O(n) instead of
+     * sifting each element up.
+     * @param elements the elements to insert
      */
-    private void heapifyDown(int index) {
-        int smallest = index;
-        int left = leftChild(index);
-        int right = rightChild(index);
-        int size = heap.size();
-        
-        // Check left child
-        if (left < size && comparator.compare(heap.get(left), heap.get(smallest)) < 0) {
-            smallest = left;
+    public void addAll(Collection<? extends T> elements) {
+        int count = elements.size();
+        if (count < size) {
+            for (T element : elements) {
+                add(element);
+            }
+            return;
         }
         
-        // Check right child
-        if (right < size && comparator.compare(heap.get(right), heap.get(smallest)) < 0) {
-            smallest = right;
+        ensureCapacity(size + count);
+        for (T element : elements) {
+            heap[size++] = element;
         }
-        
-        // If a child is smaller/larger (depending on heap type)
-        if (smallest != index) {
-            swap(index, smallest);
-            heapifyDown(smallest);
+        buildHeap();
+    }
+    
+    /**
+     * Restore heap order over the whole array bottom-up (Floyd's method), O(n)
+     */
+    private void buildHeap() {
+        for (int i = parent(size - 1); i >= 0; i--) {
+            siftDown(i, elementAt(i));
         }
     }
     
+    /**
+     * Place element at the hole at index, moving parents down until it fits
+     */
+    private void siftUp(int index, T element) {
+        while (index > 0) {
+            int parentIdx = parent(index);
+            T parent = elementAt(parentIdx);
+            // Compare based on the comparator
+            if (comparator.compare(element, parent) >= 0) {
+                break;
+            }
+            heap[index] = parent;
+            index = parentIdx;
+        }
+        heap[index] = element;
+    }
+    
+    /**
+     * Place element at the hole at index, moving the best child up until it fits
+     */
+    private void siftDown(int index, T element) {
+        int firstChild;
+        while ((firstChild = firstChild(index)) < size) {
+            // Find the smallest/largest child (depending on heap type)
+            int best = firstChild;
+            T bestChild = elementAt(firstChild);
+            int lastChild = Math.min(firstChild + arity, size);
+            for (int child = firstChild + 1; child < lastChild; child++) {
+                T candidate = elementAt(child);
+                if (comparator.compare(candidate, bestChild) < 0) {
+                    best = child;
+                    bestChild = candidate;
+                }
+            }
+            
+            if (comparator.compare(bestChild, element) >= 0) {
+                break;
+            }
+            heap[index] = bestChild;
+            index = best;
+        }
+        heap[index] = element;
+    }
+    
     /**
      * Remove and return the root element (min for MinHeap, max for MaxHeap)
      * @return the root element
@@ -152,19 +223,15 @@ public class PriorityQueue<T extends Comparable<T>> {
             throw new RuntimeException("Priority queue is empty");
         }
         
-        T root = heap.get(0);
+        T root = elementAt(0);
         
-        // If only one element
-        if (heap.size() == 1) {
-            heap.remove(0);
-            return root;
+        // Move the last element into the root hole and sift it down
+        T lastElement = elementAt(--size);
+        heap[size] = null;
+        if (size > 0) {
+            siftDown(0, lastElement);
         }
         
-        // Replace root with the last element and heapify down
-        T lastElement = heap.remove(heap.size() - 1);
-        heap.set(0, lastElement);
-        heapifyDown(0);
-        
         return root;
     }
     
@@ -178,7 +245,7 @@ public class PriorityQueue<T extends Comparable<T>> {
             throw new RuntimeException("Priority queue is empty");
         }
         
-        return heap.get(0);
+        return elementAt(0);
     }
     
     /**
@@ -187,52 +254,49 @@ public class PriorityQueue<T extends Comparable<T>> {
      * @return true if the element was found and removed, false otherwise
      */
     public boolean remove(T element) {
-        int index = -1;
-        
-        // Find the index of the element
-        for (int i = 0; i < heap.size(); i++) {
-            if (heap.get(i).equals(element)) {
-                index = i;
-                break;
-            }
-        }
+        int index = indexOf(element);
         
         if (index == -1) {
             return false; // Element not found
         }
         
-        // If it's the last element, simply remove it
-        if (index == heap.size() - 1) {
-            heap.remove(index);
+        T lastElement = elementAt(--size);
+        heap[size] = null;
+        
+        // If it was the last element, nothing needs to move
+        if (index == size) {
             return true;
         }
         
-        // Replace with the last element
-        heap.set(index, heap.remove(heap.size() - 1));
-        
-        // If the new element at this position is "better" than its parent,
-        // heapify up, otherwise heapify down
-        int parentIdx = parent(index);
-        if (index > 0 && comparator.compare(heap.get(index), heap.get(parentIdx)) < 0) {
-            // Heapify up
-            while (index > 0 && comparator.compare(heap.get(index), heap.get(parentIdx)) < 0) {
-                swap(index, parentIdx);
-                index = parentIdx;
-                parentIdx = parent(index);
-            }
+        // Fill the hole with the last element: if it is "better" than the
+        // parent, sift up, otherwise sift down
+        if (index > 0 && comparator.compare(lastElement, elementAt(parent(index))) < 0) {
+            siftUp(index, lastElement);
         } else {
-            // Heapify down
-            heapifyDown(index);
+            siftDown(index, lastElement);
         }
         
         return true;
     }
     
+    /**
+     * Find the index of an element, or -1 if absent
+     */
+    private int indexOf(T element) {
+        for (int i = 0; i < size; i++) {
+            if (heap[i].equals(element)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
     /**
      * Clear all elements from the heap
      */
     public void clear() {
-        heap.clear();
+        Arrays.fill(heap, 0, size, null);
+        size = 0;
     }
     
     /**
@@ -241,7 +305,7 @@ public class PriorityQueue<T extends Comparable<T>> {
      * @return true if the element is in the queue, false otherwise
      */
     public boolean contains(T element) {
-        return heap.contains(element);
+        return indexOf(element) != -1;
     }
     
     /**
@@ -250,7 +314,17 @@ public class PriorityQueue<T extends Comparable<T>> {
      */
     @SuppressWarnings("unchecked")
     public T[] toArray() {
-        return (T[]) heap.toArray();
+        return (T[]) Arrays.copyOf(heap, size);
+    }
+    
+    /**
+     * Grow the backing array to hold at least minCapacity elements
+     */
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity > heap.length) {
+            int newCapacity = Math.max(heap.length * 2, minCapacity);
+            heap = Arrays.copyOf(heap, newCapacity);
+        }
     }
     
     /**
@@ -261,9 +335,9 @@ public class PriorityQueue<T extends Comparable<T>> {
         if (isEmpty()) return "[]";
         
         StringBuilder sb = new StringBuilder("[");
-        for (int i = 0; i < heap.size(); i++) {
-            sb.append(heap.get(i));
-            if (i < heap.size() - 1) {
+        for (int i = 0; i < size; i++) {
+            sb.append(heap[i]);
+            if (i < size - 1) {
                 sb.append(", ");
             }
         }
@@ -0,0 +1,131 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark for PriorityQueue at different arities against java.util.PriorityQueue.
+ * Runs a primitive-key workload (boxed Integer, cheap compare) and a comparator-heavy
+ * workload (multi-field comparator chain), each as add-then-poll and as bulk heapify-then-poll.
+ */
+public class PriorityQueueBenchmark {
+    private static final int SIZE = 1_000_000;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+    private static final int[] ARITIES = {2, 4, 8};
+
+    // Record with several fields, so each comparison does real work
+    private static final class Task implements Comparable<Task> {
+        final int priority;
+        final long deadline;
+        final String name;
+
+        Task(int priority, long deadline, String name) {
+            this.priority = priority;
+            this.deadline = deadline;
+            this.name = name;
+        }
+
+        @Override
+        public int compareTo(Task other) {
+            return TASK_ORDER.compare(this, other);
+        }
+    }
+
+    private static final Comparator<Task> TASK_ORDER = Comparator
+            .comparingInt((Task t) -> t.priority)
+            .thenComparingLong(t -> t.deadline)
+            .thenComparing(t -> t.name);
+
+    private static volatile Object sink;
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        List<Integer> ints = new ArrayList<>(SIZE);
+        List<Task> tasks = new ArrayList<>(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            ints.add(random.nextInt());
+            tasks.add(new Task(random.nextInt(16), random.nextInt(1000), "task-" + random.nextInt(10_000)));
+        }
+
+        System.out.println("Primitive keys (Integer), " + SIZE + " elements");
+        runAll(ints, Comparator.naturalOrder());
+
+        System.out.println("\nComparator-heavy (priority, deadline, name), " + SIZE + " elements");
+        runAll(tasks, TASK_ORDER);
+    }
+
+    private static <T extends Comparable<T>> void runAll(List<T> data, Comparator<T> comparator) {
+        for (int arity : ARITIES) {
+            print(arity + "-ary add+poll", measure(() -> addPoll(data, comparator, arity)));
+        }
+        print("java.util add+poll", measure(() -> jdkAddPoll(data, comparator)));
+
+        for (int arity : ARITIES) {
+            print(arity + "-ary heapify+poll", measure(() -> heapifyPoll(data, comparator, arity)));
+        }
+        print("java.util heapify+poll", measure(() -> jdkHeapifyPoll(data, comparator)));
+    }
+
+    private static <T extends Comparable<T>> void addPoll(List<T> data, Comparator<T> comparator, int arity) {
+        PriorityQueue<T> queue = new PriorityQueue<>(comparator, arity);
+        for (T element : data) {
+            queue.add(element);
+        }
+        drain(queue);
+    }
+
+    private static <T extends Comparable<T>> void heapifyPoll(List<T> data, Comparator<T> comparator, int arity) {
+        PriorityQueue<T> queue = new PriorityQueue<>(comparator, arity);
+        queue.addAll(data);
+        drain(queue);
+    }
+
+    private static <T extends Comparable<T>> void drain(PriorityQueue<T> queue) {
+        Object last = null;
+        while (!queue.isEmpty()) {
+            last = queue.poll();
+        }
+        sink = last;
+    }
+
+    private static <T> void jdkAddPoll(List<T> data, Comparator<T> comparator) {
+        java.util.PriorityQueue<T> queue = new java.util.PriorityQueue<>(comparator);
+        for (T element : data) {
+            queue.add(element);
+        }
+        jdkDrain(queue);
+    }
+
+    private static <T> void jdkHeapifyPoll(List<T> data, Comparator<T> comparator) {
+        java.util.PriorityQueue<T> queue = new java.util.PriorityQueue<>(comparator);
+        queue.addAll(data); // java.util sifts each element up; only its copy constructor heapifies
+        jdkDrain(queue);
+    }
+
+    private static <T> void jdkDrain(java.util.PriorityQueue<T> queue) {
+        Object last = null;
+        while (!queue.isEmpty()) {
+            last = queue.poll();
+        }
+        sink = last;
+    }
+
+    // Best time over the measured rounds, in milliseconds
+    private static double measure(Runnable work) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            work.run();
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            work.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1e6;
+    }
+
+    private static void print(String label, double millis) {
+        System.out.printf("  %-24s %8.1f ms%n", label, millis);
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * Throughput comparison of the node-based Queue/Deque against the circular-array
+ * ArrayQueue/ArrayDeque. Each workload is repeated and the best run is reported
+ * in nanoseconds per operation.
+ */
+public class RingBufferBenchmark {
+    private static final int OPERATIONS = 10_000_000;
+    private static final int BURST = 100_000;
+    private static final int ROUNDS = 5;
+
+    private static long sink;
+
+    public static void main(String[] args) {
+        System.out.printf("%-28s %12s %12s%n", "workload", "node-based", "array-based");
+        report("queue steady (depth 1000)", RingBufferBenchmark::queueSteady, RingBufferBenchmark::arrayQueueSteady);
+        report("queue burst fill/drain", RingBufferBenchmark::queueBurst, RingBufferBenchmark::arrayQueueBurst);
+        report("deque mixed ends", RingBufferBenchmark::dequeMixed, RingBufferBenchmark::arrayDequeMixed);
+        System.out.println("(sink " + sink + ")");
+    }
+
+    private static void report(String label, Runnable nodeBased, Runnable arrayBased) {
+        System.out.printf("%-28s %9.2f ns %9.2f ns%n", label, best(nodeBased), best(arrayBased));
+    }
+
+    // Best time per operation over several rounds; the first rounds also act as warmup
+    private static double best(Runnable workload) {
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            workload.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return (double) best / OPERATIONS;
+    }
+
+    private static void queueSteady() {
+        Queue<Integer> queue = new Queue<>();
+        for (int i = 0; i < 1000; i++) {
+            queue.enqueue(i);
+        }
+        long sum = 0;
+        for (int i = 0; i < OPERATIONS / 2; i++) {
+            queue.enqueue(i);
+            sum += queue.dequeue();
+        }
+        sink += sum;
+    }
+
+    private static void arrayQueueSteady() {
+        ArrayQueue<Integer> queue = new ArrayQueue<>();
+        for (int i = 0; i < 1000; i++) {
+            queue.enqueue(i);
+        }
+        long sum = 0;
+        for (int i = 0; i < OPERATIONS / 2; i++) {
+            queue.enqueue(i);
+            sum += queue.dequeue();
+        }
+        sink += sum;
+    }
+
+    private static void queueBurst() {
+        Queue<Integer> queue = new Queue<>();
+        long sum = 0;
+        for (int round = 0; round < OPERATIONS / (2 * BURST); round++) {
+            for (int i = 0; i < BURST; i++) {
+                queue.enqueue(i);
+            }
+            while (!queue.isEmpty()) {
+                sum += queue.dequeue();
+            }
+        }
+        sink += sum;
+    }
+
+    private static void arrayQueueBurst() {
+        ArrayQueue<Integer> queue = new ArrayQueue<>();
+        long sum = 0;
+        for (int round = 0; round < OPERATIONS / (2 * BURST); round++) {
+            for (int i = 0; i < BURST; i++) {
+                queue.enqueue(i);
+            }
+            while (!queue.isEmpty()) {
+                sum += queue.dequeue();
+            }
+        }
+        sink += sum;
+    }
+
+    private static void dequeMixed() {
+        Deque<Integer> deque = new Deque<>();
+        for (int i = 0; i < 1000; i++) {
+            deque.addLast(i);
+        }
+        long sum = 0;
+        for (int i = 0; i < OPERATIONS / 4; i++) {
+            deque.addFirst(i);
+            deque.addLast(i);
+            sum += deque.removeFirst();
+            sum += deque.removeLast();
+        }
+        sink += sum;
+    }
+
+    private static void arrayDequeMixed() {
+        ArrayDeque<Integer> deque = new ArrayDeque<>();
+        for (int i = 0; i < 1000; i++) {
+            deque.addLast(i);
+        }
+        long sum = 0;
+        for (int i = 0; i < OPERATIONS / 4; i++) {
+            deque.addFirst(i);
+            deque.addLast(i);
+            sum += deque.removeFirst();
+            sum += deque.removeLast();
+        }
+        sink += sum;
+    }
+}
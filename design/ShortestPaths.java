@@ -0,0 +1,557 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Weighted shortest paths over a CsrGraph (an unweighted graph has weight 1 on
+ * every edge; weights must be non-negative).
+ *
+ * - dijkstra: one source to one target or to all vertices, with an indexed
+ *   4-ary heap that supports decrease-key, so every vertex is in it at most once
+ * - aStar: Dijkstra ordered by distance + a caller-supplied lower bound to the target
+ * - bidirectionalDijkstra: searches forward from the source and backward from
+ *   the target until the two frontiers prove the best meeting point
+ * - deltaStepping: parallel single-source distances; vertices are grouped in
+ *   buckets of width delta and each bucket's edges are relaxed on a ForkJoinPool
+ *
+ * An instance is a reusable workspace: its arrays are allocated once, and
+ * entries are stamped with a query generation, so a point-to-point query only
+ * touches the vertices it reaches. Not thread-safe; use one instance per thread
+ * (they can share the graph).
+ */
+public class ShortestPaths {
+    private static final double INFINITY = Double.POSITIVE_INFINITY;
+    private static final int ARITY = 4;
+    // Upper bound on delta-stepping buckets; delta is raised if the weights need more
+    private static final int MAX_BUCKETS = 1 << 16;
+    // Vertices per chunk when relaxing a delta-stepping bucket in parallel
+    private static final int RELAX_GRAIN = 256;
+
+    /**
+     * Lower bound on the distance from vertex to target for A*. It must never
+     * overestimate, and should be consistent (estimate(u) <= w(u, v) + estimate(v)),
+     * e.g. straight-line distance on a road network.
+     */
+    public interface Heuristic {
+        double estimate(int vertex, int target);
+    }
+
+    private final int vertexCount;
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+    // Reverse graph for the backward half of bidirectional search
+    private final int[] inOffsets;
+    private final int[] inTargets;
+    private final double[] inWeights;
+    private final double maxWeight;
+    private final ForkJoinPool pool;
+
+    // Search state per direction; an entry is valid only if its stamp is the current generation
+    private final double[] forwardDistance;
+    private final int[] forwardParent;
+    private final int[] forwardStamp;
+    private final Heap forwardHeap;
+    private final double[] backwardDistance;
+    private final int[] backwardParent;
+    private final int[] backwardStamp;
+    private final Heap backwardHeap;
+    private int generation;
+
+    // Last point-to-point query, for path(); lastTarget is -1 if there was none
+    private int lastTarget = -1;
+    private int meeting = -1;
+    private double lastDistance;
+
+    // Delta-stepping state, created on first use
+    private AtomicLongArray parallelDistance;
+    private IntArrayList[] buckets;
+    private IntArrayList[] relaxed;
+    private IntArrayList bucketVertices;
+    private IntArrayList settled;
+    private int[] bucketMark;
+    private int[] settledMark;
+    private int markGeneration;
+
+    // Constructor - delta-stepping runs on the common pool
+    public ShortestPaths(CsrGraph<?> graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    public ShortestPaths(CsrGraph<?> graph, ForkJoinPool pool) {
+        double max = 0;
+        for (int edge = 0; edge < graph.edgeCount(); edge++) {
+            double weight = graph.weight(edge);
+            if (!(weight >= 0)) {
+                throw new IllegalArgumentException("Edge weight must be non-negative: " + weight);
+            }
+            max = Math.max(max, weight);
+        }
+        CsrGraph<?> reverse = graph.reverse();
+        this.vertexCount = graph.vertexCount();
+        this.offsets = graph.offsets();
+        this.targets = graph.targets();
+        this.weights = graph.weights();
+        this.inOffsets = reverse.offsets();
+        this.inTargets = reverse.targets();
+        this.inWeights = reverse.weights();
+        this.maxWeight = max;
+        this.pool = pool;
+
+        this.forwardDistance = new double[vertexCount];
+        this.forwardParent = new int[vertexCount];
+        this.forwardStamp = new int[vertexCount];
+        this.forwardHeap = new Heap(vertexCount);
+        this.backwardDistance = new double[vertexCount];
+        this.backwardParent = new int[vertexCount];
+        this.backwardStamp = new int[vertexCount];
+        this.backwardHeap = new Heap(vertexCount);
+    }
+
+    // Indexed min-heap of vertex IDs keyed by a double priority, with decrease-key
+    private static final class Heap {
+        private final int[] heap;
+        // Index of each vertex in heap, -1 if absent
+        private final int[] position;
+        private final double[] priority;
+        private int size;
+
+        Heap(int capacity) {
+            this.heap = new int[capacity];
+            this.position = new int[capacity];
+            this.priority = new double[capacity];
+            Arrays.fill(position, -1);
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        double minPriority() {
+            return priority[heap[0]];
+        }
+
+        // Insert a vertex, or lower its priority if already present
+        void push(int vertex, double key) {
+            int index = position[vertex];
+            siftUp(index < 0 ? size++ : index, vertex, key);
+        }
+
+        int poll() {
+            int top = heap[0];
+            position[top] = -1;
+            int last = heap[--size];
+            if (size > 0) {
+                siftDown(0, last, priority[last]);
+            }
+            return top;
+        }
+
+        // Empty the heap in O(size), leaving positions ready for the next query
+        void clear() {
+            for (int i = 0; i < size; i++) {
+                position[heap[i]] = -1;
+            }
+            size = 0;
+        }
+
+        private void siftUp(int index, int vertex, double key) {
+            while (index > 0) {
+                int parentIndex = (index - 1) / ARITY;
+                int parent = heap[parentIndex];
+                if (priority[parent] <= key) {
+                    break;
+                }
+                heap[index] = parent;
+                position[parent] = index;
+                index = parentIndex;
+            }
+            place(index, vertex, key);
+        }
+
+        private void siftDown(int index, int vertex, double key) {
+            while (true) {
+                int first = index * ARITY + 1;
+                if (first >= size) {
+                    break;
+                }
+                int best = first;
+                for (int child = first + 1, end = Math.min(first + ARITY, size); child < end; child++) {
+                    if (priority[heap[child]] < priority[heap[best]]) {
+                        best = child;
+                    }
+                }
+                int child = heap[best];
+                if (priority[child] >= key) {
+                    break;
+                }
+                heap[index] = child;
+                position[child] = index;
+                index = best;
+            }
+            place(index, vertex, key);
+        }
+
+        private void place(int index, int vertex, double key) {
+            heap[index] = vertex;
+            position[vertex] = index;
+            priority[vertex] = key;
+        }
+    }
+
+    /**
+     * Shortest distance from source to target; stops as soon as target is settled
+     * @return the distance, or infinity if target is unreachable
+     */
+    public double dijkstra(int source, int target) {
+        checkId(target);
+        return pointToPoint(target, search(source, target, null));
+    }
+
+    /**
+     * Distances (and optionally the shortest-path tree) from source to every vertex
+     * @param distances filled per vertex ID, infinity if unreachable
+     * @param parents filled per vertex ID with the previous vertex on a shortest
+     *                path, -1 for the source and unreachable vertices; may be null
+     */
+    public void dijkstra(int source, double[] distances, int[] parents) {
+        checkOutput(distances.length);
+        if (parents != null) {
+            checkOutput(parents.length);
+        }
+        search(source, -1, null);
+        lastTarget = -1;
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            boolean reached = forwardStamp[vertex] == generation;
+            distances[vertex] = reached ? forwardDistance[vertex] : INFINITY;
+            if (parents != null) {
+                parents[vertex] = reached ? forwardParent[vertex] : -1;
+            }
+        }
+    }
+
+    /**
+     * Shortest distance from source to target with A*: vertices are expanded by
+     * distance + heuristic estimate, so a good heuristic settles far fewer vertices
+     * @return the distance, or infinity if target is unreachable
+     */
+    public double aStar(int source, int target, Heuristic heuristic) {
+        checkId(target);
+        if (heuristic == null) {
+            throw new IllegalArgumentException("Heuristic cannot be null");
+        }
+        return pointToPoint(target, search(source, target, heuristic));
+    }
+
+    // Dijkstra or A* from source; stops when target (if not -1) is settled
+    private double search(int source, int target, Heuristic heuristic) {
+        checkId(source);
+        begin();
+        reach(forwardDistance, forwardParent, forwardStamp, source, 0, -1);
+        forwardHeap.push(source, heuristic == null ? 0 : heuristic.estimate(source, target));
+        while (!forwardHeap.isEmpty()) {
+            int vertex = forwardHeap.poll();
+            if (vertex == target) {
+                return forwardDistance[vertex];
+            }
+            double distance = forwardDistance[vertex];
+            for (int edge = offsets[vertex], end = offsets[vertex + 1]; edge < end; edge++) {
+                int neighbor = targets[edge];
+                double candidate = distance + (weights == null ? 1.0 : weights[edge]);
+                if (forwardStamp[neighbor] != generation || candidate < forwardDistance[neighbor]) {
+                    reach(forwardDistance, forwardParent, forwardStamp, neighbor, candidate, vertex);
+                    forwardHeap.push(neighbor,
+                            heuristic == null ? candidate : candidate + heuristic.estimate(neighbor, target));
+                }
+            }
+        }
+        return INFINITY;
+    }
+
+    /**
+     * Shortest distance from source to target, searching from both ends at once.
+     * Each side expands its closest vertex, and the search stops once the two
+     * smallest frontier distances add up to at least the best path found so far.
+     * @return the distance, or infinity if target is unreachable
+     */
+    public double bidirectionalDijkstra(int source, int target) {
+        checkId(source);
+        checkId(target);
+        begin();
+        reach(forwardDistance, forwardParent, forwardStamp, source, 0, -1);
+        reach(backwardDistance, backwardParent, backwardStamp, target, 0, -1);
+        forwardHeap.push(source, 0);
+        backwardHeap.push(target, 0);
+        double best = source == target ? 0 : INFINITY;
+        meeting = source == target ? source : -1;
+
+        while (!forwardHeap.isEmpty() && !backwardHeap.isEmpty()
+                && forwardHeap.minPriority() + backwardHeap.minPriority() < best) {
+            boolean forward = forwardHeap.minPriority() <= backwardHeap.minPriority();
+            Heap heap = forward ? forwardHeap : backwardHeap;
+            double[] distance = forward ? forwardDistance : backwardDistance;
+            int[] parent = forward ? forwardParent : backwardParent;
+            int[] stamp = forward ? forwardStamp : backwardStamp;
+            double[] otherDistance = forward ? backwardDistance : forwardDistance;
+            int[] otherStamp = forward ? backwardStamp : forwardStamp;
+            int[] edgeOffsets = forward ? offsets : inOffsets;
+            int[] edgeTargets = forward ? targets : inTargets;
+            double[] edgeWeights = forward ? weights : inWeights;
+
+            int vertex = heap.poll();
+            double vertexDistance = distance[vertex];
+            for (int edge = edgeOffsets[vertex], end = edgeOffsets[vertex + 1]; edge < end; edge++) {
+                int neighbor = edgeTargets[edge];
+                double candidate = vertexDistance + (edgeWeights == null ? 1.0 : edgeWeights[edge]);
+                if (stamp[neighbor] != generation || candidate < distance[neighbor]) {
+                    reach(distance, parent, stamp, neighbor, candidate, vertex);
+                    heap.push(neighbor, candidate);
+                    // A path through neighbor, if the other side has reached it
+                    if (otherStamp[neighbor] == generation && candidate + otherDistance[neighbor] < best) {
+                        best = candidate + otherDistance[neighbor];
+                        meeting = neighbor;
+                    }
+                }
+            }
+        }
+        return pointToPoint(target, best);
+    }
+
+    /**
+     * Vertices on the shortest path found by the last point-to-point query
+     * (dijkstra to a target, aStar or bidirectionalDijkstra)
+     * @return vertex IDs from source to target, or null if target was unreachable
+     */
+    public int[] path() {
+        if (lastTarget < 0) {
+            throw new IllegalStateException("No point-to-point query to take a path from");
+        }
+        if (lastDistance == INFINITY) {
+            return null;
+        }
+        // Forward half: meeting (or target) back to source
+        int end = meeting >= 0 ? meeting : lastTarget;
+        int length = 0;
+        for (int vertex = end; vertex >= 0; vertex = forwardParent[vertex]) {
+            length++;
+        }
+        int forwardLength = length;
+        if (meeting >= 0) {
+            for (int vertex = backwardParent[meeting]; vertex >= 0; vertex = backwardParent[vertex]) {
+                length++;
+            }
+        }
+
+        int[] path = new int[length];
+        int index = forwardLength;
+        for (int vertex = end; vertex >= 0; vertex = forwardParent[vertex]) {
+            path[--index] = vertex;
+        }
+        // Backward half: parents in the backward search point toward the target
+        if (meeting >= 0) {
+            index = forwardLength;
+            for (int vertex = backwardParent[meeting]; vertex >= 0; vertex = backwardParent[vertex]) {
+                path[index++] = vertex;
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Parallel delta-stepping from source to every vertex.
+     * Tentative distances live in buckets of width delta. The smallest non-empty
+     * bucket is drained in phases: each phase relaxes the light edges (weight <=
+     * delta) of all its vertices in parallel, which may refill the same bucket;
+     * heavy edges, which can only reach later buckets, are relaxed once at the end.
+     * Large delta means fewer, bigger phases (more parallelism, more wasted
+     * relaxations); delta near the smallest weight approaches Dijkstra.
+     * @param distances filled per vertex ID, infinity if unreachable
+     */
+    public void deltaStepping(int source, double delta, double[] distances) {
+        checkId(source);
+        checkOutput(distances.length);
+        if (!(delta > 0) || delta == INFINITY) {
+            throw new IllegalArgumentException("Delta must be positive and finite: " + delta);
+        }
+        // Buckets are reused cyclically; a relaxation lands at most maxWeight / delta + 1 buckets ahead
+        delta = Math.max(delta, maxWeight / (MAX_BUCKETS - 2));
+        int bucketCount = (int) (maxWeight / delta) + 2;
+        prepareDeltaStepping(bucketCount);
+        lastTarget = -1;
+
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            parallelDistance.set(vertex, Double.doubleToRawLongBits(INFINITY));
+        }
+        parallelDistance.set(source, Double.doubleToRawLongBits(0));
+        buckets[0].add(source);
+        long pending = 1;
+        long current = 0;
+
+        while (pending > 0) {
+            IntArrayList bucket = buckets[(int) (current % bucketCount)];
+            if (bucket.isEmpty()) {
+                current++;
+                continue;
+            }
+            int settledGeneration = nextMark();
+            settled.clear();
+            while (!bucket.isEmpty()) {
+                // Vertices still in this bucket; skip stale entries and duplicates
+                int phase = nextMark();
+                bucketVertices.clear();
+                for (int i = 0; i < bucket.size(); i++) {
+                    int vertex = bucket.get(i);
+                    if (bucketOf(vertex, delta) == current && bucketMark[vertex] != phase) {
+                        bucketMark[vertex] = phase;
+                        bucketVertices.add(vertex);
+                        if (settledMark[vertex] != settledGeneration) {
+                            settledMark[vertex] = settledGeneration;
+                            settled.add(vertex);
+                        }
+                    }
+                }
+                pending -= bucket.size();
+                bucket.clear();
+                pending += relaxAll(bucketVertices, delta, true, bucketCount);
+            }
+            pending += relaxAll(settled, delta, false, bucketCount);
+            current++;
+        }
+
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            distances[vertex] = Double.longBitsToDouble(parallelDistance.get(vertex));
+        }
+    }
+
+    private void prepareDeltaStepping(int bucketCount) {
+        if (parallelDistance == null) {
+            parallelDistance = new AtomicLongArray(vertexCount);
+            relaxed = new IntArrayList[pool.getParallelism() * 4];
+            for (int i = 0; i < relaxed.length; i++) {
+                relaxed[i] = new IntArrayList();
+            }
+            bucketVertices = new IntArrayList();
+            settled = new IntArrayList();
+            bucketMark = new int[vertexCount];
+            settledMark = new int[vertexCount];
+        }
+        if (buckets == null || buckets.length != bucketCount) {
+            buckets = new IntArrayList[bucketCount];
+            for (int i = 0; i < bucketCount; i++) {
+                buckets[i] = new IntArrayList();
+            }
+        } else {
+            for (IntArrayList bucket : buckets) {
+                bucket.clear();
+            }
+        }
+    }
+
+    // Relax the light or heavy edges of vertices in parallel, then file improved vertices into buckets
+    private int relaxAll(IntArrayList vertices, double delta, boolean light, int bucketCount) {
+        int count = vertices.size();
+        int chunks = (int) Math.min((count + (long) RELAX_GRAIN - 1) / RELAX_GRAIN, relaxed.length);
+        if (chunks <= 1) {
+            relax(vertices, 0, count, delta, light, relaxed[0]);
+            chunks = 1;
+        } else {
+            ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[chunks];
+            for (int i = 0; i < chunks; i++) {
+                int lo = (int) ((long) count * i / chunks);
+                int hi = (int) ((long) count * (i + 1) / chunks);
+                IntArrayList output = relaxed[i];
+                tasks[i] = ForkJoinTask.adapt(() -> relax(vertices, lo, hi, delta, light, output));
+            }
+            pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+        }
+
+        int added = 0;
+        for (int i = 0; i < chunks; i++) {
+            IntArrayList output = relaxed[i];
+            for (int j = 0; j < output.size(); j++) {
+                int vertex = output.get(j);
+                buckets[(int) (bucketOf(vertex, delta) % bucketCount)].add(vertex);
+            }
+            added += output.size();
+            output.clear();
+        }
+        return added;
+    }
+
+    // Relax one chunk; improved targets are collected in output (possibly more than once)
+    private void relax(IntArrayList vertices, int lo, int hi, double delta, boolean light, IntArrayList output) {
+        for (int i = lo; i < hi; i++) {
+            int vertex = vertices.get(i);
+            double distance = Double.longBitsToDouble(parallelDistance.get(vertex));
+            for (int edge = offsets[vertex], end = offsets[vertex + 1]; edge < end; edge++) {
+                double weight = weights == null ? 1.0 : weights[edge];
+                if ((weight <= delta) == light && lowerDistance(targets[edge], distance + weight)) {
+                    output.add(targets[edge]);
+                }
+            }
+        }
+    }
+
+    // Atomically lower a vertex's tentative distance; true if candidate was smaller
+    private boolean lowerDistance(int vertex, double candidate) {
+        long bits = parallelDistance.get(vertex);
+        while (candidate < Double.longBitsToDouble(bits)) {
+            if (parallelDistance.compareAndSet(vertex, bits, Double.doubleToRawLongBits(candidate))) {
+                return true;
+            }
+            bits = parallelDistance.get(vertex);
+        }
+        return false;
+    }
+
+    private long bucketOf(int vertex, double delta) {
+        return (long) (Double.longBitsToDouble(parallelDistance.get(vertex)) / delta);
+    }
+
+    private int nextMark() {
+        if (markGeneration == Integer.MAX_VALUE) {
+            Arrays.fill(bucketMark, 0);
+            Arrays.fill(settledMark, 0);
+            markGeneration = 0;
+        }
+        return ++markGeneration;
+    }
+
+    // Start a new query: invalidate all stamped entries and empty the heaps
+    private void begin() {
+        if (generation == Integer.MAX_VALUE) {
+            Arrays.fill(forwardStamp, 0);
+            Arrays.fill(backwardStamp, 0);
+            generation = 0;
+        }
+        generation++;
+        forwardHeap.clear();
+        backwardHeap.clear();
+        meeting = -1;
+    }
+
+    private void reach(double[] distance, int[] parent, int[] stamp, int vertex, double value, int from) {
+        distance[vertex] = value;
+        parent[vertex] = from;
+        stamp[vertex] = generation;
+    }
+
+    private double pointToPoint(int target, double distance) {
+        lastTarget = target;
+        lastDistance = distance;
+        return distance;
+    }
+
+    private void checkId(int vertex) {
+        if (vertex < 0 || vertex >= vertexCount) {
+            throw new IndexOutOfBoundsException("Vertex: " + vertex + ", Vertex count: " + vertexCount);
+        }
+    }
+
+    private void checkOutput(int length) {
+        if (length < vertexCount) {
+            throw new IllegalArgumentException("Output array length " + length + " < vertex count " + vertexCount);
+        }
+    }
+}
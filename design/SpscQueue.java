@@ -0,0 +1,138 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Bounded lock-free queue for exactly one producer thread and one consumer thread.
+ * The producer only writes the tail and the consumer only writes the head, so no
+ * CAS is needed. Head and tail live on separate cache lines, and each side keeps
+ * a cached copy of the other side's index to avoid reading it on every call.
+ */
+public class SpscQueue<T> {
+    // Slots in the padded sequence array, 128 bytes apart so they never share a cache line
+    private static final int HEAD = 16;        // Next index to poll (consumer)
+    private static final int TAIL_CACHE = 17;  // Consumer's last seen tail
+    private static final int TAIL = 32;        // Next index to offer (producer)
+    private static final int HEAD_CACHE = 33;  // Producer's last seen head
+    private static final int SEQUENCES_LENGTH = 48;
+
+    private final AtomicReferenceArray<T> buffer;
+    private final AtomicLongArray sequences;
+    private final int mask;
+
+    // Constructor with capacity (rounded up to a power of two)
+    public SpscQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        this.buffer = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(SEQUENCES_LENGTH);
+        this.mask = size - 1;
+    }
+
+    // Get capacity
+    public int capacity() {
+        return mask + 1;
+    }
+
+    // Get size (approximate while the other side is running)
+    public int size() {
+        long head = sequences.get(HEAD);
+        long tail = sequences.get(TAIL);
+        return (int) Math.max(0, Math.min(tail - head, capacity()));
+    }
+
+    // Check if empty
+    public boolean isEmpty() {
+        return sequences.get(HEAD) == sequences.get(TAIL);
+    }
+
+    // Add an element; returns false if the queue is full. Producer thread only.
+    public boolean offer(T element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Element cannot be null");
+        }
+
+        long tail = sequences.getPlain(TAIL);
+        if (tail - sequences.getPlain(HEAD_CACHE) > mask) {
+            sequences.setPlain(HEAD_CACHE, sequences.get(HEAD));
+            if (tail - sequences.getPlain(HEAD_CACHE) > mask) {
+                return false; // Queue is full
+            }
+        }
+
+        buffer.lazySet((int) tail & mask, element);
+        sequences.lazySet(TAIL, tail + 1);
+        return true;
+    }
+
+    // Remove and return the front element, or null if empty. Consumer thread only.
+    public T poll() {
+        long head = sequences.getPlain(HEAD);
+        if (head >= sequences.getPlain(TAIL_CACHE)) {
+            sequences.setPlain(TAIL_CACHE, sequences.get(TAIL));
+            if (head >= sequences.getPlain(TAIL_CACHE)) {
+                return null; // Queue is empty
+            }
+        }
+
+        int index = (int) head & mask;
+        T element = buffer.get(index);
+        buffer.lazySet(index, null);
+        sequences.lazySet(HEAD, head + 1);
+        return element;
+    }
+
+    /**
+     * Poll up to limit elements into the consumer, publishing the new head once.
+     * Consumer thread only.
+     * @return number of elements drained
+     */
+    public int drain(Consumer<? super T> consumer, int limit) {
+        if (limit <= 0) {
+            return 0;
+        }
+        long head = sequences.getPlain(HEAD);
+        long available = sequences.get(TAIL) - head;
+        int count = (int) Math.min(available, limit);
+
+        for (int i = 0; i < count; i++) {
+            int index = (int) (head + i) & mask;
+            T element = buffer.get(index);
+            buffer.lazySet(index, null);
+            consumer.accept(element);
+        }
+
+        sequences.lazySet(HEAD, head + count);
+        return count;
+    }
+
+    /**
+     * Offer up to limit elements taken from the supplier, publishing the new tail once.
+     * The supplier is only called for slots that are free. Producer thread only.
+     * @return number of elements added
+     */
+    public int fill(Supplier<? extends T> supplier, int limit) {
+        if (limit <= 0) {
+            return 0;
+        }
+        long tail = sequences.getPlain(TAIL);
+        long free = capacity() - (tail - sequences.get(HEAD));
+        int count = (int) Math.min(free, limit);
+
+        for (int i = 0; i < count; i++) {
+            T element = supplier.get();
+            if (element == null) {
+                // Keep the elements already written
+                sequences.lazySet(TAIL, tail + i);
+                throw new IllegalArgumentException("Element cannot be null");
+            }
+            buffer.lazySet((int) (tail + i) & mask, element);
+        }
+
+        sequences.lazySet(TAIL, tail + count);
+        return count;
+    }
+}
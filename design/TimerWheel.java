@@ -0,0 +1,420 @@
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Hierarchical timing wheel for large numbers of timeouts, most of which are
+ * cancelled before they fire. Time is cut into ticks; level 0 has one bucket per
+ * tick for the next 64 ticks, and each higher level covers 64 times the span of
+ * the one below. A timer sits in a doubly-linked bucket list, so schedule and
+ * cancel are O(1), and timers cascade down a level as their deadline approaches.
+ * Deadlines beyond the top level wait in an overflow LongPriorityQueue.
+ *
+ * Expiry is driven either by calling advance() (tick-driven, e.g. from an event
+ * loop) or by start(ThreadFactory), which runs a driver thread that advances once
+ * per tick. Tasks run on the advancing thread, outside the wheel's lock.
+ */
+public class TimerWheel implements AutoCloseable {
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+    // Ticks covered by the whole wheel; later deadlines go to the overflow heap
+    private static final long WHEEL_SPAN = 1L << (WHEEL_BITS * LEVELS);
+    private static final int OVERFLOW = -1;
+
+    private static final int PENDING = 0;
+    private static final int EXPIRED = 1;
+    private static final int CANCELLED = 2;
+
+    // Handle for a scheduled task
+    public static final class Timeout {
+        private final TimerWheel wheel;
+        private final Runnable task;
+        private final long deadlineNanos;
+        private final long deadlineTick;
+        private int state;
+        private int level;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(TimerWheel wheel, Runnable task, long deadlineNanos, long deadlineTick) {
+            this.wheel = wheel;
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+            this.deadlineTick = deadlineTick;
+        }
+
+        // Cancel in O(1); returns false if the timer already fired or was cancelled
+        public boolean cancel() {
+            return wheel.cancel(this);
+        }
+
+        public boolean isCancelled() {
+            wheel.lock.lock();
+            try {
+                return state == CANCELLED;
+            } finally {
+                wheel.lock.unlock();
+            }
+        }
+
+        public boolean isExpired() {
+            wheel.lock.lock();
+            try {
+                return state == EXPIRED;
+            } finally {
+                wheel.lock.unlock();
+            }
+        }
+
+        // Deadline in the wheel's ticker time
+        public long deadlineNanos() {
+            return deadlineNanos;
+        }
+    }
+
+    // Counters for pending timers and how late timers fire
+    public static final class Metrics {
+        private final LongAdder scheduled = new LongAdder();
+        private final LongAdder fired = new LongAdder();
+        private final LongAdder cancelled = new LongAdder();
+        private final LongAdder totalLagNanos = new LongAdder();
+        private final AtomicLong maxLagNanos = new AtomicLong();
+
+        void recordFire(long lagNanos) {
+            fired.increment();
+            totalLagNanos.add(lagNanos);
+            maxLagNanos.accumulateAndGet(lagNanos, Math::max);
+        }
+
+        public long scheduledCount() {
+            return scheduled.sum();
+        }
+
+        public long firedCount() {
+            return fired.sum();
+        }
+
+        public long cancelledCount() {
+            return cancelled.sum();
+        }
+
+        // Timers scheduled and neither fired nor cancelled yet
+        public long pendingCount() {
+            return scheduledCount() - firedCount() - cancelledCount();
+        }
+
+        // Mean time between a timer's deadline and its task starting
+        public double meanFireLagNanos() {
+            long count = firedCount();
+            return count == 0 ? 0.0 : (double) totalLagNanos.sum() / count;
+        }
+
+        public long maxFireLagNanos() {
+            return maxLagNanos.get();
+        }
+
+        @Override
+        public String toString() {
+            return "Metrics{pending=" + pendingCount() + ", fired=" + firedCount()
+                    + ", cancelled=" + cancelledCount()
+                    + ", meanLagMs=" + String.format("%.3f", meanFireLagNanos() / 1e6)
+                    + ", maxLagMs=" + String.format("%.3f", maxFireLagNanos() / 1e6) + "}";
+        }
+    }
+
+    private final long tickNanos;
+    private final LongSupplier ticker;
+    private final long startNanos;
+    private final Timeout[][] buckets;
+    private final LongPriorityQueue<Timeout> overflow;
+    private final ReentrantLock lock;
+    private final Metrics metrics;
+    // Next tick to process; everything before it has fired
+    private long currentTick;
+    private int pending;
+
+    private volatile boolean running;
+    private Thread driver;
+
+    // Constructor using System.nanoTime
+    public TimerWheel(long tickDuration, TimeUnit unit) {
+        this(tickDuration, unit, System::nanoTime);
+    }
+
+    // Constructor with a custom time source in nanoseconds
+    public TimerWheel(long tickDuration, TimeUnit unit, LongSupplier ticker) {
+        this.tickNanos = unit.toNanos(tickDuration);
+        if (tickNanos <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive: " + tickDuration + " " + unit);
+        }
+        this.ticker = ticker;
+        this.startNanos = ticker.getAsLong();
+        this.buckets = new Timeout[LEVELS][WHEEL_SIZE];
+        this.overflow = new LongPriorityQueue<>();
+        this.lock = new ReentrantLock();
+        this.metrics = new Metrics();
+    }
+
+    // Number of timers that are neither fired nor cancelled
+    public int pendingTimers() {
+        lock.lock();
+        try {
+            return pending;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Metrics metrics() {
+        return metrics;
+    }
+
+    /**
+     * Schedule a task to run once the delay has passed, in O(1)
+     * @return a handle that can cancel the task
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        long deadlineNanos = ticker.getAsLong() + Math.max(0, unit.toNanos(delay));
+        // Round up, so a timer never fires before its deadline
+        long deadlineTick = Math.floorDiv(deadlineNanos - startNanos + tickNanos - 1, tickNanos);
+
+        lock.lock();
+        try {
+            Timeout timeout = new Timeout(this, task, deadlineNanos, Math.max(deadlineTick, currentTick));
+            place(timeout);
+            pending++;
+            metrics.scheduled.increment();
+            return timeout;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Fire every timer whose deadline has passed according to the ticker
+     * @return number of tasks run
+     */
+    public int advance() {
+        long nowTick = Math.floorDiv(ticker.getAsLong() - startNanos, tickNanos);
+        Timeout expired = null;
+
+        lock.lock();
+        try {
+            while (currentTick <= nowTick) {
+                if (pending == 0) {
+                    // Nothing to cascade or fire: skip idle ticks in one step
+                    currentTick = nowTick + 1;
+                    break;
+                }
+                expired = processTick(expired);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        return runExpired(expired);
+    }
+
+    // Start a daemon driver thread that advances the wheel once per tick
+    public void start() {
+        start(runnable -> {
+            Thread thread = new Thread(runnable, "timer-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Start a driver thread from the factory (e.g. a virtual-thread factory)
+     * that advances the wheel once per tick
+     */
+    public void start(ThreadFactory threadFactory) {
+        lock.lock();
+        try {
+            if (driver != null) {
+                throw new IllegalStateException("Timer wheel already started");
+            }
+            running = true;
+            driver = threadFactory.newThread(this::drive);
+            driver.start();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Stop the driver thread, if any; pending timers stay scheduled
+    @Override
+    public void close() {
+        Thread thread;
+        lock.lock();
+        try {
+            thread = driver;
+            driver = null;
+            running = false;
+        } finally {
+            lock.unlock();
+        }
+        if (thread != null && thread != Thread.currentThread()) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void drive() {
+        while (running) {
+            try {
+                advance();
+            } catch (RuntimeException e) {
+                Thread current = Thread.currentThread();
+                current.getUncaughtExceptionHandler().uncaughtException(current, e);
+            }
+            // Sleep until the start of the next tick
+            long elapsed = ticker.getAsLong() - startNanos;
+            LockSupport.parkNanos(tickNanos - Math.floorMod(elapsed, tickNanos));
+        }
+    }
+
+    private boolean cancel(Timeout timeout) {
+        lock.lock();
+        try {
+            if (timeout.state != PENDING) {
+                return false;
+            }
+            timeout.state = CANCELLED;
+            // Overflow entries are dropped lazily when they would move into the wheel
+            if (timeout.level != OVERFLOW) {
+                unlink(timeout);
+            }
+            pending--;
+            metrics.cancelled.increment();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Process currentTick: pull near overflow entries into the wheel, cascade higher
+     * levels whose bucket starts at this tick, then detach level 0's bucket onto the
+     * expired chain. Caller holds the lock.
+     */
+    private Timeout processTick(Timeout expired) {
+        long tick = currentTick;
+
+        while (!overflow.isEmpty() && overflow.peekKey() - tick < WHEEL_SPAN) {
+            Timeout timeout = overflow.poll();
+            if (timeout.state == PENDING) {
+                place(timeout);
+            }
+        }
+
+        // Highest level first, so entries can fall through several levels in one tick
+        for (int level = LEVELS - 1; level > 0; level--) {
+            if ((tick & ((1L << (WHEEL_BITS * level)) - 1)) == 0) {
+                int slot = (int) (tick >>> (WHEEL_BITS * level)) & WHEEL_MASK;
+                Timeout timeout = buckets[level][slot];
+                buckets[level][slot] = null;
+                while (timeout != null) {
+                    Timeout next = timeout.next;
+                    place(timeout);
+                    timeout = next;
+                }
+            }
+        }
+
+        int slot = (int) tick & WHEEL_MASK;
+        Timeout timeout = buckets[0][slot];
+        buckets[0][slot] = null;
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            timeout.state = EXPIRED;
+            timeout.prev = null;
+            timeout.next = expired;
+            expired = timeout;
+            pending--;
+            timeout = next;
+        }
+
+        currentTick = tick + 1;
+        return expired;
+    }
+
+    // Run the expired chain without holding the lock; rethrows the first task failure after running the rest
+    private int runExpired(Timeout expired) {
+        int count = 0;
+        RuntimeException failure = null;
+        while (expired != null) {
+            Timeout next = expired.next;
+            expired.next = null;
+            metrics.recordFire(Math.max(0, ticker.getAsLong() - expired.deadlineNanos));
+            try {
+                expired.task.run();
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+            count++;
+            expired = next;
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return count;
+    }
+
+    /**
+     * Put a timer in the lowest level whose span covers its remaining ticks,
+     * or in the overflow heap. Caller holds the lock.
+     */
+    private void place(Timeout timeout) {
+        long delta = timeout.deadlineTick - currentTick;
+        if (delta >= WHEEL_SPAN) {
+            timeout.level = OVERFLOW;
+            overflow.add(timeout.deadlineTick, timeout);
+            return;
+        }
+
+        int level = 0;
+        while (delta >= 1L << (WHEEL_BITS * (level + 1))) {
+            level++;
+        }
+        int slot = (int) (timeout.deadlineTick >>> (WHEEL_BITS * level)) & WHEEL_MASK;
+
+        timeout.level = level;
+        timeout.prev = null;
+        timeout.next = buckets[level][slot];
+        if (timeout.next != null) {
+            timeout.next.prev = timeout;
+        }
+        buckets[level][slot] = timeout;
+    }
+
+    // Remove a timer from its bucket list. Caller holds the lock.
+    private void unlink(Timeout timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            int slot = (int) (timeout.deadlineTick >>> (WHEEL_BITS * timeout.level)) & WHEEL_MASK;
+            buckets[timeout.level][slot] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+    }
+}